@@ -0,0 +1,61 @@
+package benchmarks;
+
+import engine.board.Board;
+import engine.moves.Move;
+import engine.perft.PerftPosition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costs of the immutable Board: creating a position, generating the legal Moves of the Player to move,
+ * and performing every legal Move (Move.perform creates the new Board, Player.performMove validates first).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"INITIAL", "KIWIPETE", "POSITION_3", "POSITION_4", "POSITION_5"})
+    private PerftPosition position;
+
+    private Board board;
+    private List<Move> moves;
+
+    @Setup
+    public void setup() {
+        board = position.createBoard();
+        moves = new ArrayList<>(board.getCurrPlayer().getLegalMoves());
+    }
+
+    @Benchmark
+    public Board createBoard() {
+        return position.createBoard();
+    }
+
+    @Benchmark
+    public int generateLegalMoves() {
+        return position.createBoard().getCurrPlayer().getLegalMoves().size();
+    }
+
+    @Benchmark
+    public void performMove(final Blackhole blackhole) {
+        for (final Move move : moves) {
+            blackhole.consume(move.perform());
+        }
+    }
+
+    @Benchmark
+    public void performMoveByPlayer(final Blackhole blackhole) {
+        for (final Move move : moves) {
+            blackhole.consume(board.getCurrPlayer().performMove(move));
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package benchmarks;
+
+import engine.board.Board;
+import engine.board.SearchBoard;
+import engine.perft.Perft;
+import engine.perft.PerftPosition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perft of the standard test positions on the Board (new Board per Move) and the SearchBoard (make/unmake).
+ * Depth 3 keeps one Board invocation in the range of a few hundred milliseconds.
+ * The Board only promotes to Queens, so it walks only the positions whose published count at depth 3 it reaches
+ * (see PerftPosition.getMaxBoardDepth()); POSITION_4 and POSITION_5 have underpromotions within 3 plies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+
+    @State(Scope.Thread)
+    public static class BoardState {
+
+        @Param({"INITIAL", "KIWIPETE", "POSITION_3"})
+        private PerftPosition position;
+
+        @Param({"3"})
+        private int depth;
+
+        private Board board;
+
+        @Setup
+        public void setup() {
+            if (depth > position.getMaxBoardDepth()) {
+                throw new IllegalStateException(position + " has underpromotions within " + depth + " plies");
+            }
+            board = position.createBoard();
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class SearchBoardState {
+
+        @Param({"INITIAL", "KIWIPETE", "POSITION_3", "POSITION_4", "POSITION_5"})
+        private PerftPosition position;
+
+        @Param({"3"})
+        private int depth;
+
+        private SearchBoard searchBoard;
+
+        @Setup
+        public void setup() {
+            searchBoard = SearchBoard.fromBoard(position.createBoard());
+        }
+
+    }
+
+    @Benchmark
+    public long perftBoard(final BoardState state) {
+        return Perft.perft(state.board, state.depth);
+    }
+
+    @Benchmark
+    public long perftSearchBoard(final SearchBoardState state) {
+        return Perft.perft(state.searchBoard, state.depth);
+    }
+
+}
@@ -0,0 +1,384 @@
+package application;
+
+import engine.board.SearchBoard;
+import engine.moves.MoveBuffer;
+import engine.moves.MoveGenerator;
+import engine.moves.PackedMove;
+import engine.search.Search;
+import engine.search.SearchLimits;
+import engine.search.SearchResult;
+import engine.search.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import static engine.moves.PackedMove.NO_MOVE;
+
+/**
+ * Headless front end of the engine, speaking the Universal Chess Interface (UCI) on standard input and output, e.g.
+ * for tournament managers and analysis scripts (ref. https://www.chessprogramming.org/UCI).
+ * The position is kept as a SearchBoard with the game's Moves made on it, so the search detects repetitions.
+ * A search runs on its own thread, and reports its progress as "info" lines (at most one per INFO_INTERVAL_MILLIS,
+ * and the last one) and its result as "bestmove"; meanwhile commands are still read, so "stop" and "isready" are
+ * answered right away. Nothing of the GUI (JavaFX) is loaded.
+ */
+public final class JChaturangaUci {
+
+    private static final String NAME = "JChaturanga 0.9";
+    private static final long INFO_INTERVAL_MILLIS = 100; // min time between info lines of a search
+    private static final int MIN_HASH_MB = 1;
+    private static final int MAX_HASH_MB = 4096;
+    private static final int MAX_THREADS = 256;
+    private static final int MAX_GAME_PLY = SearchBoard.MAX_PLY - Search.MAX_DEPTH; // the rest is for the search
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final MoveBuffer buffer = new MoveBuffer(1);
+    private int hashSizeMb = TranspositionTable.DEFAULT_SIZE_MB;
+    private int threads = 1;
+    private Search search = createSearch();
+    private SearchBoard position = SearchBoard.fromFen(SearchBoard.START_FEN);
+    private Thread searchThread; // null if no search was started
+    private volatile CountDownLatch stopRequest; // of running search (an infinite one waits for it to report)
+    private long lastInfoTime; // System.nanoTime() of last info line (written by search thread only)
+    private int lastInfoDepth;
+    private SearchResult lastIteration; // of running search, or null (written by search thread only)
+
+    public JChaturangaUci(final BufferedReader in, final PrintStream out) {
+        this.in = in;
+        this.out = out;
+        MoveGenerator.generateLegalMoves(position, buffer, 0); // builds the attack tables before "uciok", not on a clock
+    }
+
+    public static void main(String[] args) throws IOException {
+        new JChaturangaUci(new BufferedReader(new InputStreamReader(System.in)), System.out).run();
+    }
+
+    /**
+     * Read and execute commands, until "quit" or end of input.
+     */
+    public void run() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            final String[] tokens = line.trim().split("\\s+");
+            if (tokens[0].equals("quit")) {
+                break;
+            }
+            try {
+                execute(tokens);
+            } catch (final RuntimeException e) { // a bad command mustn't end the engine
+                send("info string " + tokens[0] + " failed: " + e);
+            }
+        }
+        stopSearch();
+    }
+
+    private void execute(final String[] tokens) {
+        switch (tokens[0]) {
+            case "uci":
+                send("id name " + NAME);
+                send("id author JChaturanga");
+                send("option name Hash type spin default " + TranspositionTable.DEFAULT_SIZE_MB +
+                     " min " + MIN_HASH_MB + " max " + MAX_HASH_MB);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "setoption":
+                stopSearch();
+                setOption(tokens);
+                break;
+            case "ucinewgame":
+                stopSearch();
+                search.getTranspositionTable().clear();
+                break;
+            case "position":
+                stopSearch();
+                setPosition(tokens);
+                break;
+            case "go":
+                stopSearch();
+                go(tokens);
+                break;
+            case "stop":
+                requestStop();
+                break;
+            default: // unknown commands are ignored, as the protocol demands
+                break;
+        }
+    }
+
+    // COMMANDS
+
+    /**
+     * "setoption name Hash value 64" or "setoption name Threads value 4": a new Search is created for either.
+     */
+    private void setOption(final String[] tokens) {
+        final int nameIndex = indexOf(tokens, "name");
+        final int valueIndex = indexOf(tokens, "value");
+        if (nameIndex < 0 || valueIndex < nameIndex + 2 || valueIndex + 1 >= tokens.length) {
+            send("info string setoption needs a name and a value");
+            return;
+        }
+        final String name = String.join(" ", Arrays.copyOfRange(tokens, nameIndex + 1, valueIndex));
+        final int value;
+        try {
+            value = Integer.parseInt(tokens[valueIndex + 1]);
+        } catch (final NumberFormatException e) {
+            send("info string " + name + " needs a number");
+            return;
+        }
+
+        if (name.equalsIgnoreCase("Hash")) {
+            hashSizeMb = Math.max(MIN_HASH_MB, Math.min(value, MAX_HASH_MB));
+        } else if (name.equalsIgnoreCase("Threads")) {
+            threads = Math.max(1, Math.min(value, MAX_THREADS));
+        } else {
+            send("info string unknown option " + name);
+            return;
+        }
+        search = createSearch();
+    }
+
+    private Search createSearch() {
+        final Search newSearch = new Search(hashSizeMb, threads);
+        newSearch.setIterationListener(this::sendIterationInfo);
+        return newSearch;
+    }
+
+    /**
+     * "position startpos moves e2e4 e7e5" or "position fen [FEN] moves ..": the Moves are made on the position.
+     */
+    private void setPosition(final String[] tokens) {
+        final int movesIndex = indexOf(tokens, "moves");
+        final int end = (movesIndex >= 0) ? movesIndex : tokens.length;
+        try {
+            if (tokens.length > 1 && tokens[1].equals("startpos")) {
+                position = SearchBoard.fromFen(SearchBoard.START_FEN);
+            } else if (tokens.length > 1 && tokens[1].equals("fen")) {
+                position = SearchBoard.fromFen(String.join(" ", Arrays.copyOfRange(tokens, 2, end)));
+            } else {
+                send("info string position needs startpos or fen");
+                return;
+            }
+        } catch (final IllegalArgumentException e) {
+            send("info string " + e.getMessage());
+            return;
+        }
+
+        for (int i = end + 1; i < tokens.length; i++) {
+            final int move = findLegalMove(tokens[i]);
+            if (move == NO_MOVE) {
+                send("info string illegal move " + tokens[i]);
+                return;
+            }
+            if (position.getPly() >= MAX_GAME_PLY) { // rebase a long game on its last irreversible Move
+                position.trimHistory(Math.min(position.getHalfMoveClock(), MAX_GAME_PLY / 2));
+            }
+            position.makeMove(move);
+        }
+    }
+
+    /**
+     * @param notation coordinate notation of Move (e.g. "e2e4", or "e7e8q").
+     * @return legal packed Move of the position, or NO_MOVE if none has the notation.
+     */
+    private int findLegalMove(final String notation) {
+        final int count = MoveGenerator.generateLegalMoves(position, buffer, 0);
+        for (int i = 0; i < count; i++) {
+            if (PackedMove.toString(buffer.get(0, i)).equals(notation)) {
+                return buffer.get(0, i);
+            }
+        }
+        return NO_MOVE;
+    }
+
+    /**
+     * "go" with "depth", "movetime", "wtime"/"btime" (and "winc"/"binc"/"movestogo"), or "infinite" (also without
+     * any limits): searches on the search thread. A depth is kept together with either time limit; a "movetime" is
+     * searched in full (see SearchLimits.ofTime).
+     */
+    private void go(final String[] tokens) {
+        final boolean white = position.getCurrColor().isWhite();
+        final long time = getValue(tokens, white ? "wtime" : "btime", -1);
+        final long increment = getValue(tokens, white ? "winc" : "binc", 0);
+        final int depth = (int) getValue(tokens, "depth", -1);
+        final long moveTime = getValue(tokens, "movetime", -1);
+        final boolean infinite = indexOf(tokens, "infinite") >= 0 || (time < 0 && depth < 0 && moveTime < 0);
+
+        final SearchLimits limits;
+        if (infinite) {
+            limits = SearchLimits.ofDepth(Search.MAX_DEPTH);
+        } else if (time >= 0) {
+            limits = SearchLimits.ofClock((depth > 0) ? depth : Search.MAX_DEPTH, time, increment,
+                                          (int) getValue(tokens, "movestogo", 0));
+        } else if (moveTime >= 0) {
+            limits = (depth > 0) ? SearchLimits.of(depth, moveTime) : SearchLimits.ofTime(moveTime);
+        } else {
+            limits = SearchLimits.ofDepth(Math.max(depth, 1));
+        }
+
+        final Search engine = search;
+        final SearchBoard root = position.copy();
+        final CountDownLatch stop = new CountDownLatch(1);
+        stopRequest = stop;
+        lastInfoTime = System.nanoTime();
+        lastInfoDepth = 0;
+        lastIteration = null;
+        searchThread = new Thread(() -> {
+            SearchResult result;
+            try {
+                result = engine.search(root, limits);
+            } catch (final RuntimeException e) { // still report a Move, or the GUI waits for one forever
+                send("info string search failed: " + e);
+                result = lastIteration;
+            }
+            if (infinite) {
+                awaitStop(stop); // the result of an infinite search is reported only on "stop"
+            }
+            if (result == null) {
+                send("bestmove 0000");
+                return;
+            }
+            if (result.getDepth() > lastInfoDepth) {
+                sendInfo(result);
+            }
+            sendBestMove(result);
+        }, "uci-search");
+        searchThread.start();
+    }
+
+    private static void awaitStop(final CountDownLatch stop) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                stop.await();
+                break;
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stop the running search (if any): it reports its best Move within a few milliseconds. A search that hasn't
+     * started yet isn't stopped by Search.stop(); it stops after its next iteration (see sendIterationInfo).
+     */
+    private void requestStop() {
+        final CountDownLatch stop = stopRequest;
+        if (stop != null) {
+            stop.countDown();
+        }
+        search.stop();
+    }
+
+    /**
+     * Stop the running search (if any), and wait until it has reported its best Move.
+     */
+    private void stopSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        requestStop();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                searchThread.join();
+                break;
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+        stopRequest = null;
+    }
+
+    // OUTPUT
+
+    /**
+     * Called by the search thread after each completed iteration; throttled to one line per INFO_INTERVAL_MILLIS.
+     */
+    private void sendIterationInfo(final SearchResult result) {
+        lastIteration = result;
+        if (stopRequest.getCount() == 0) {
+            search.stop(); // stop requested before the search started
+        }
+        if (System.nanoTime() - lastInfoTime >= INFO_INTERVAL_MILLIS * 1_000_000L) {
+            sendInfo(result);
+        }
+    }
+
+    private void sendInfo(final SearchResult result) {
+        lastInfoTime = System.nanoTime();
+        lastInfoDepth = result.getDepth();
+        final StringBuilder sb = new StringBuilder();
+        sb.append("info depth ").append(result.getDepth())
+          .append(" score ").append(Search.isMateScore(result.getScore()) ? "mate " + result.getMateInMoves()
+                                                                            : "cp " + result.getScore())
+          .append(" nodes ").append(result.getNodes())
+          .append(" nps ").append(result.getNodesPerSecond())
+          .append(" time ").append(result.getTimeMillis());
+        if (result.getPrincipalVariation().length > 0) {
+            sb.append(" pv");
+            for (final int move : result.getPrincipalVariation()) {
+                sb.append(' ').append(PackedMove.toString(move));
+            }
+        }
+        send(sb.toString());
+    }
+
+    private void sendBestMove(final SearchResult result) {
+        final int[] pv = result.getPrincipalVariation();
+        if (pv.length == 0) {
+            send("bestmove 0000"); // no legal Moves
+        } else if (pv.length == 1) {
+            send("bestmove " + PackedMove.toString(pv[0]));
+        } else {
+            send("bestmove " + PackedMove.toString(pv[0]) + " ponder " + PackedMove.toString(pv[1]));
+        }
+    }
+
+    private void send(final String line) {
+        synchronized (out) { // written by input and search thread
+            out.println(line);
+            out.flush();
+        }
+    }
+
+    private static int indexOf(final String[] tokens, final String token) {
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i].equals(token)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return number following the token, or defaultValue if none.
+     */
+    private static long getValue(final String[] tokens, final String token, final long defaultValue) {
+        final int index = indexOf(tokens, token);
+        if (index < 0 || index + 1 >= tokens.length) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(tokens[index + 1]);
+        } catch (final NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+}
@@ -0,0 +1,278 @@
+package engine.board;
+
+import static engine.board.BitBoard.EMPTY_MASK;
+import static engine.board.BitBoard.PIECE_TYPES;
+import static engine.board.BitBoard.getSquareMask;
+import static engine.board.BoardUtilities.SQUARES_ON_BOARD;
+import static engine.board.BoardUtilities.SQUARES_ON_ROW;
+import static engine.pieces.Piece.PieceType.*;
+
+/**
+ * Precomputed attack masks, built once when the class is initialized.
+ * Knights, Kings and Pawns ("leapers") have one fixed attack mask per Square.
+ * Sliding Pieces (Rook, Bishop, Queen) use "magic bitboards": the blockers on a Piece's rays are multiplied
+ * with a magic number, which hashes every possible blocker setup to its own slot in a per-Square attack table.
+ * Finding a Piece's attacked Squares is thus a single table lookup, no matter how many Squares it can reach.
+ * (ref. https://www.chessprogramming.org/Magic_Bitboards)
+ */
+public enum AttackTables {
+
+    INSTANCE;
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}}; // row & column steps
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    private static final int[][] BLACK_PAWN_STEPS = {{1, -1}, {1, 1}}; // black Pawns capture "downwards"
+    private static final int[][] WHITE_PAWN_STEPS = {{-1, -1}, {-1, 1}}; // white Pawns capture "upwards"
+    private static final long MAGIC_SEED = 0x5DEECE66DL; // fixed seed, so tables are equal on every run
+
+    private static final long[] ROOK_MASKS = new long[SQUARES_ON_BOARD]; // relevant blocker Squares (no edges)
+    private static final long[] ROOK_MAGICS = new long[SQUARES_ON_BOARD];
+    private static final int[] ROOK_SHIFTS = new int[SQUARES_ON_BOARD];
+    private static final long[][] ROOK_ATTACKS = new long[SQUARES_ON_BOARD][];
+    private static final long[] BISHOP_MASKS = new long[SQUARES_ON_BOARD];
+    private static final long[] BISHOP_MAGICS = new long[SQUARES_ON_BOARD];
+    private static final int[] BISHOP_SHIFTS = new int[SQUARES_ON_BOARD];
+    private static final long[][] BISHOP_ATTACKS = new long[SQUARES_ON_BOARD][];
+    private static final long[] KNIGHT_ATTACKS = new long[SQUARES_ON_BOARD];
+    private static final long[] KING_ATTACKS = new long[SQUARES_ON_BOARD];
+    private static final long[][] PAWN_ATTACKS = new long[2][SQUARES_ON_BOARD]; // indexed by PlayerColor ordinal
+
+    static {
+        final long[] seed = {MAGIC_SEED};
+        for (int pos = 0; pos < SQUARES_ON_BOARD; pos++) {
+            KNIGHT_ATTACKS[pos] = getTargetMask(BoardUtilities.getKnightTargets(pos));
+            KING_ATTACKS[pos] = getTargetMask(BoardUtilities.getKingTargets(pos));
+            PAWN_ATTACKS[0][pos] = getStepAttacks(pos, BLACK_PAWN_STEPS);
+            PAWN_ATTACKS[1][pos] = getStepAttacks(pos, WHITE_PAWN_STEPS);
+            initializeMagic(pos, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_ATTACKS, seed);
+            initializeMagic(pos, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_ATTACKS, seed);
+        }
+    }
+
+    /**
+     * @param squarePos of Rook (0-63).
+     * @param occupancy mask of all occupied Squares on Board.
+     * @return mask of all Squares attacked by a Rook, including the first blocking Square on each ray.
+     */
+    public static long getRookAttacks(final int squarePos, final long occupancy) {
+        return ROOK_ATTACKS[squarePos][getMagicIndex(occupancy & ROOK_MASKS[squarePos],
+                                                     ROOK_MAGICS[squarePos], ROOK_SHIFTS[squarePos])];
+    }
+
+    /**
+     * @param squarePos of Bishop (0-63).
+     * @param occupancy mask of all occupied Squares on Board.
+     * @return mask of all Squares attacked by a Bishop, including the first blocking Square on each ray.
+     */
+    public static long getBishopAttacks(final int squarePos, final long occupancy) {
+        return BISHOP_ATTACKS[squarePos][getMagicIndex(occupancy & BISHOP_MASKS[squarePos],
+                                                       BISHOP_MAGICS[squarePos], BISHOP_SHIFTS[squarePos])];
+    }
+
+    /**
+     * @param squarePos of Queen (0-63).
+     * @param occupancy mask of all occupied Squares on Board.
+     * @return mask of all Squares attacked by a Queen (i.e. the union of Rook and Bishop attacks).
+     */
+    public static long getQueenAttacks(final int squarePos, final long occupancy) {
+        return getRookAttacks(squarePos, occupancy) | getBishopAttacks(squarePos, occupancy);
+    }
+
+    public static long getKnightAttacks(final int squarePos) {return KNIGHT_ATTACKS[squarePos];}
+    public static long getKingAttacks(final int squarePos) {return KING_ATTACKS[squarePos];}
+
+    /**
+     * @param squarePos of Pawn (0-63).
+     * @param colorOrdinal ordinal of the Pawn's PlayerColor.
+     * @return mask of the (one or two) Squares diagonally in front of the Pawn.
+     */
+    public static long getPawnAttacks(final int squarePos, final int colorOrdinal) {
+        return PAWN_ATTACKS[colorOrdinal][squarePos];
+    }
+
+    /**
+     * Work backwards from a Square: it is attacked if a Piece of the attacking color stands on a Square that the
+     * same kind of Piece would attack from the given Square (e.g. a Knight a Knight's jump away).
+     * @param squarePos of Square to check (e.g. a King's position).
+     * @param colorOrdinal ordinal of the attacking PlayerColor.
+     * @param pieceBoards masks of Pieces, indexed as in BitBoard.
+     * @param occupancy mask of all occupied Squares, blocking the sliding Pieces.
+     * @param removed mask of Squares whose Pieces don't attack (e.g. a Piece about to be captured).
+     * @return true (if any Piece of the attacking color attacks the Square).
+     */
+    static boolean isSquareAttacked(final int squarePos, final int colorOrdinal,
+                                    final long[] pieceBoards, final long occupancy, final long removed) {
+
+        final int first = colorOrdinal * PIECE_TYPES; // index of attacking color's first mask
+        final long kept = ~removed;
+
+        if ((PAWN_ATTACKS[colorOrdinal ^ 1][squarePos] & pieceBoards[first + PAWN.ordinal()] & kept) != 0 ||
+            (KNIGHT_ATTACKS[squarePos] & pieceBoards[first + KNIGHT.ordinal()] & kept) != 0 ||
+            (KING_ATTACKS[squarePos] & pieceBoards[first + KING.ordinal()]) != 0) {
+            return true;
+        }
+
+        final long queens = pieceBoards[first + QUEEN.ordinal()];
+        final long rooksQueens = (pieceBoards[first + ROOK.ordinal()] | queens) & kept;
+        final long bishopsQueens = (pieceBoards[first + BISHOP.ordinal()] | queens) & kept;
+
+        return (rooksQueens != 0 && (getRookAttacks(squarePos, occupancy) & rooksQueens) != 0) ||
+               (bishopsQueens != 0 && (getBishopAttacks(squarePos, occupancy) & bishopsQueens) != 0);
+    }
+
+    /**
+     * @param squarePos of Square to check.
+     * @param pieceBoards masks of Pieces, indexed as in BitBoard.
+     * @param occupancy mask of occupied Squares; only Pieces on it attack, and only it blocks the sliding Pieces.
+     * @return mask of the Pieces of both colors attacking the Square.
+     */
+    static long getAttackers(final int squarePos, final long[] pieceBoards, final long occupancy) {
+        final int white = PIECE_TYPES; // index of white's first mask (black's is 0)
+        final long rooksQueens = pieceBoards[ROOK.ordinal()] | pieceBoards[white + ROOK.ordinal()] |
+                                 pieceBoards[QUEEN.ordinal()] | pieceBoards[white + QUEEN.ordinal()];
+        final long bishopsQueens = pieceBoards[BISHOP.ordinal()] | pieceBoards[white + BISHOP.ordinal()] |
+                                   pieceBoards[QUEEN.ordinal()] | pieceBoards[white + QUEEN.ordinal()];
+
+        return ((PAWN_ATTACKS[1][squarePos] & pieceBoards[PAWN.ordinal()]) |
+                (PAWN_ATTACKS[0][squarePos] & pieceBoards[white + PAWN.ordinal()]) |
+                (KNIGHT_ATTACKS[squarePos] & (pieceBoards[KNIGHT.ordinal()] | pieceBoards[white + KNIGHT.ordinal()])) |
+                (KING_ATTACKS[squarePos] & (pieceBoards[KING.ordinal()] | pieceBoards[white + KING.ordinal()])) |
+                (getRookAttacks(squarePos, occupancy) & rooksQueens) |
+                (getBishopAttacks(squarePos, occupancy) & bishopsQueens)) & occupancy;
+    }
+
+    private static int getMagicIndex(final long blockers, final long magic, final int shift) {
+        return (int) ((blockers * magic) >>> shift);
+    }
+
+    /**
+     * Find a magic number for one Square that maps every blocker subset of its mask to a distinct attack set,
+     * and fill the Square's attack table while doing so.
+     */
+    private static void initializeMagic(final int squarePos, final int[][] directions,
+                                        final long[] masks, final long[] magics, final int[] shifts,
+                                        final long[][] attackTables, final long[] seed) {
+
+        final long mask = getRelevantMask(squarePos, directions);
+        final int bits = Long.bitCount(mask);
+        final int subsets = 1 << bits;
+        final long[] blockers = new long[subsets];
+        final long[] attacks = new long[subsets];
+
+        // ENUMERATE ALL BLOCKER SUBSETS OF MASK ("carry-rippler")
+        long subset = EMPTY_MASK;
+        for (int i = 0; i < subsets; i++) {
+            blockers[i] = subset;
+            attacks[i] = getRayAttacks(squarePos, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        final long[] table = new long[subsets];
+        final int[] epochs = new int[subsets]; // marks which attempt last wrote a table slot
+        final int shift = Long.SIZE - bits;
+
+        for (int attempt = 1; ; attempt++) {
+            final long magic = nextSparseRandom(seed);
+            if (Long.bitCount((mask * magic) >>> 56) < 6) {
+                continue; // skip magics that spread the mask poorly into the index bits
+            }
+
+            boolean collision = false;
+            for (int i = 0; i < subsets && !collision; i++) {
+                final int index = getMagicIndex(blockers[i], magic, shift);
+                if (epochs[index] != attempt) {
+                    epochs[index] = attempt;
+                    table[index] = attacks[i];
+                } else if (table[index] != attacks[i]) {
+                    collision = true; // two blocker setups with different attacks share a slot
+                }
+            }
+
+            if (!collision) {
+                masks[squarePos] = mask;
+                magics[squarePos] = magic;
+                shifts[squarePos] = shift;
+                attackTables[squarePos] = table;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return mask of Squares whose occupancy affects a slider's attacks (rays without their last Square).
+     */
+    private static long getRelevantMask(final int squarePos, final int[][] directions) {
+        long mask = EMPTY_MASK;
+        for (final int[] dir : directions) {
+            int row = squarePos / SQUARES_ON_ROW + dir[0];
+            int col = squarePos % SQUARES_ON_ROW + dir[1];
+            while (isOnBoard(row + dir[0], col + dir[1])) { // stop before the edge Square of the ray
+                mask |= getSquareMask(row * SQUARES_ON_ROW + col);
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Walk every ray Square by Square; only used when building the tables.
+     * @return mask of attacked Squares, including the first blocking Square on each ray.
+     */
+    private static long getRayAttacks(final int squarePos, final long blockers, final int[][] directions) {
+        long attacks = EMPTY_MASK;
+        for (final int[] dir : directions) {
+            int row = squarePos / SQUARES_ON_ROW + dir[0];
+            int col = squarePos % SQUARES_ON_ROW + dir[1];
+            while (isOnBoard(row, col)) {
+                final long squareMask = getSquareMask(row * SQUARES_ON_ROW + col);
+                attacks |= squareMask;
+                if ((blockers & squareMask) != 0) {
+                    break; // ray is blocked
+                }
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static long getStepAttacks(final int squarePos, final int[][] steps) {
+        long attacks = EMPTY_MASK;
+        for (final int[] step : steps) {
+            final int row = squarePos / SQUARES_ON_ROW + step[0];
+            final int col = squarePos % SQUARES_ON_ROW + step[1];
+            if (isOnBoard(row, col)) {
+                attacks |= getSquareMask(row * SQUARES_ON_ROW + col);
+            }
+        }
+        return attacks;
+    }
+
+    private static long getTargetMask(final int[] targets) {
+        long mask = EMPTY_MASK;
+        for (final int target : targets) {
+            mask |= getSquareMask(target);
+        }
+        return mask;
+    }
+
+    private static boolean isOnBoard(final int row, final int col) {
+        return row >= 0 && row < SQUARES_ON_ROW && col >= 0 && col < SQUARES_ON_ROW;
+    }
+
+    /**
+     * @return random number with few set bits (xorshift64*), which makes good magic candidates.
+     */
+    private static long nextSparseRandom(final long[] seed) {
+        return nextRandom(seed) & nextRandom(seed) & nextRandom(seed);
+    }
+
+    private static long nextRandom(final long[] seed) {
+        seed[0] ^= seed[0] >>> 12;
+        seed[0] ^= seed[0] << 25;
+        seed[0] ^= seed[0] >>> 27;
+        return seed[0] * 0x2545F4914F6CDD1DL;
+    }
+
+}
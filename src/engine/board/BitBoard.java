@@ -0,0 +1,143 @@
+package engine.board;
+
+import engine.pieces.Piece;
+import engine.pieces.Piece.PieceType;
+import engine.players.PlayerColor;
+
+import static engine.board.BoardUtilities.SQUARES_ON_BOARD;
+import static engine.players.PlayerColor.BLACK;
+import static engine.players.PlayerColor.WHITE;
+
+/**
+ * Bitboard representation of a Board position; one 64-bit mask for each color and PieceType (12 in total).
+ * Bit number N of a mask is set when Square number N (top-left to bottom-right; 0-63) holds such a Piece,
+ * so the bit layout follows the same numbering as the Square list of the Board.
+ */
+public final class BitBoard {
+
+    public static final int PIECE_TYPES = PieceType.values().length; // number of PieceTypes per color (6)
+    public static final int PIECE_BOARDS = PIECE_TYPES * PlayerColor.values().length; // one per color/PieceType (12)
+    public static final long EMPTY_MASK = 0L;
+    public static final long FULL_MASK = ~0L;
+
+    private final long[] pieceBoards; // indexed by getBoardIndex(color, type)
+    private final long blackOccupancy; // all Squares occupied by black Pieces
+    private final long whiteOccupancy; // all Squares occupied by white Pieces
+    private final long allOccupancy; // all Squares occupied by any Piece
+
+    BitBoard(final Iterable<Piece> pieces) {
+        pieceBoards = new long[PIECE_BOARDS];
+        for (final Piece p : pieces) {
+            pieceBoards[getBoardIndex(p.getColor(), p.getType())] |= getSquareMask(p.getSquarePos());
+        }
+        blackOccupancy = getOccupancy(pieceBoards, BLACK);
+        whiteOccupancy = getOccupancy(pieceBoards, WHITE);
+        allOccupancy = blackOccupancy | whiteOccupancy;
+    }
+
+    /**
+     * Get Piece masks, print a "1" for every occupied Square for displaying Console graphics.
+     * @return formatted ASCII graphics of the occupancy mask.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (int pos = 0; pos < SQUARES_ON_BOARD; pos++) {
+            sb.append(String.format("%3s", isOccupied(pos) ? "1" : "."));
+            if ((pos + 1) % BoardUtilities.SQUARES_ON_ROW == 0) {
+                sb.append("\n"); // new line each 8th Square
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param color of Pieces on mask.
+     * @param type of Pieces on mask.
+     * @return index of the mask holding Pieces of given color and type (black 0-5, white 6-11).
+     */
+    public static int getBoardIndex(final PlayerColor color, final PieceType type) {
+        return color.ordinal() * PIECE_TYPES + type.ordinal();
+    }
+
+    /**
+     * @param squarePos of Square (0-63).
+     * @return mask with only the bit of given Square set.
+     */
+    public static long getSquareMask(final int squarePos) {
+        return 1L << squarePos;
+    }
+
+    /**
+     * @param mask containing at least one set bit.
+     * @return squarePos (0-63) of the lowest set bit in mask.
+     */
+    public static int getFirstSquare(final long mask) {
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    private static long getOccupancy(final long[] pieceBoards, final PlayerColor color) {
+        long occupancy = EMPTY_MASK;
+        final int first = getBoardIndex(color, PieceType.values()[0]);
+        for (int i = first; i < first + PIECE_TYPES; i++) {
+            occupancy |= pieceBoards[i];
+        }
+        return occupancy;
+    }
+
+    public long getPieces(final PlayerColor color, final PieceType type) {
+        return pieceBoards[getBoardIndex(color, type)];
+    }
+
+    public long getPieces(final int boardIndex) {return pieceBoards[boardIndex];}
+    public long getOccupancy(final PlayerColor color) {return color.isWhite() ? whiteOccupancy : blackOccupancy;}
+    public long getBlackOccupancy() {return blackOccupancy;}
+    public long getWhiteOccupancy() {return whiteOccupancy;}
+    public long getAllOccupancy() {return allOccupancy;}
+    public long getEmptySquares() {return ~allOccupancy;}
+    public boolean isOccupied(final int squarePos) {return (allOccupancy & getSquareMask(squarePos)) != 0;}
+
+    /**
+     * @param squarePos of Square to check (e.g. a King's position).
+     * @param byColor color of attacking Pieces.
+     * @return true (if any Piece of the given color attacks the Square).
+     */
+    public boolean isSquareAttacked(final int squarePos, final PlayerColor byColor) {
+        return AttackTables.isSquareAttacked(squarePos, byColor.ordinal(), pieceBoards, allOccupancy, EMPTY_MASK);
+    }
+
+    /**
+     * Check a Square as if a Move was performed, without creating the new Board: the moved Piece leaves its Square
+     * (possibly uncovering a sliding attack on a pinned Piece's King), and the captured Piece no longer attacks.
+     * @param squarePos of Square to check (i.e. the King's position after the Move).
+     * @param byColor color of attacking Pieces (i.e. the opponent of the moving Player).
+     * @param from squarePos of moved Piece.
+     * @param to destination squarePos of moved Piece.
+     * @param captPos squarePos of captured Piece (differs from destination for en passant), or -1 if none.
+     * @return true (if any Piece of the given color would attack the Square after the Move).
+     */
+    public boolean isSquareAttackedAfterMove(final int squarePos, final PlayerColor byColor,
+                                             final int from, final int to, final int captPos) {
+        final long captMask = (captPos >= 0) ? getSquareMask(captPos) : EMPTY_MASK;
+        final long occupancy = (allOccupancy & ~getSquareMask(from) & ~captMask) | getSquareMask(to);
+        return AttackTables.isSquareAttacked(squarePos, byColor.ordinal(), pieceBoards, occupancy, captMask);
+    }
+
+    /**
+     * @param squarePos of Square (0-63).
+     * @return index of the mask which has the Square set, or -1 if the Square is empty.
+     */
+    public int getBoardIndex(final int squarePos) {
+        final long squareMask = getSquareMask(squarePos);
+        if ((allOccupancy & squareMask) == 0) {
+            return -1;
+        }
+        for (int i = 0; i < PIECE_BOARDS; i++) {
+            if ((pieceBoards[i] & squareMask) != 0) {
+                return i;
+            }
+        }
+        return -1; // preferred unreachable
+    }
+
+}
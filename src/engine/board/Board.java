@@ -4,41 +4,57 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import engine.moves.Move;
 import engine.pieces.*;
+import engine.pieces.Piece.PieceType;
 import engine.players.BlackPlayer;
 import engine.players.Player;
 import engine.players.PlayerColor;
 import engine.players.WhitePlayer;
-import gui.main.StatusBar;
 
 import java.util.*;
 
 import static engine.board.BoardUtilities.SQUARES_ON_BOARD;
 import static engine.board.BoardUtilities.SQUARES_ON_ROW;
+import static engine.pieces.Piece.PieceType.KING;
+import static engine.pieces.Piece.PieceType.ROOK;
 import static engine.players.PlayerColor.BLACK;
 import static engine.players.PlayerColor.WHITE;
 
 public class Board {
 
+    public static final int WHITE_SHORT_CASTLING = 1; // castling rights, set while King and Rook are unmoved
+    public static final int WHITE_LONG_CASTLING = 2;
+    public static final int BLACK_SHORT_CASTLING = 4;
+    public static final int BLACK_LONG_CASTLING = 8;
+    private static final int[] CASTLING_MASKS = initializeCastlingMasks(); // rights kept when a Square is touched
+
+    private final BitBoard bitBoard;
     private final List<Square> squareList;
     private final Collection<Piece> blackPieces;
     private final Collection<Piece> whitePieces;
-    private final BlackPlayer blackPlayer;
-    private final WhitePlayer whitePlayer;
-    private final Player currPlayer;
+    private final PlayerColor nextToMove;
+    private BlackPlayer blackPlayer; // created on first access (see getBlackPlayer)
+    private WhitePlayer whitePlayer; // created on first access (see getWhitePlayer)
     private final Pawn enPassantPawn;
     private final Move transactionMove;
+    private final int castlingRights;
+    private final long zobristKey; // position hash (pieces, Player to move, castling rights & en passant column)
+    private final int halfMoveClock; // Moves since last capture or Pawn move (for 50 moves rule)
+    private final int fullMoveNumber; // starting at 1, increased after each black Move
 
     private Board(final BoardBuilder builder) {
+        bitBoard = new BitBoard(builder.squarePieceMap.values());
         squareList = createSquareList(builder);
         blackPieces = getPieces(builder, BLACK);
         whitePieces = getPieces(builder, WHITE);
-        Collection<Move> blackLegalMoves = getLegalMoves(blackPieces);
-        Collection<Move> whiteLegalMoves = getLegalMoves(whitePieces);
-        blackPlayer = new BlackPlayer(this, blackLegalMoves, whiteLegalMoves);
-        whitePlayer = new WhitePlayer(this, whiteLegalMoves, blackLegalMoves);
-        currPlayer = builder.nextToMove.setPlayer(whitePlayer, blackPlayer);
+        nextToMove = builder.nextToMove;
         enPassantPawn = builder.enPassantPawn; // TODO: implement
         transactionMove = (builder.transactionMove != null) ? builder.transactionMove : Move.ILLEGAL_MOVE;
+        castlingRights = createCastlingRights();
+        zobristKey = (builder.zobristKey != null)
+                     ? builder.zobristKey // updated incrementally by the Move that created this Board
+                     : Zobrist.createKey(getAllPieces(), builder.nextToMove, castlingRights, enPassantPawn);
+        halfMoveClock = builder.halfMoveClock;
+        fullMoveNumber = builder.fullMoveNumber;
     }
 
     /**
@@ -62,14 +78,40 @@ public class Board {
 
     public Collection<Piece> getBlackPieces() {return blackPieces;}
     public Collection<Piece> getWhitePieces() {return whitePieces;}
-    public Player getBlackPlayer() {return blackPlayer;}
-    public Player getWhitePlayer() {return whitePlayer;}
-    public Player getCurrPlayer() {return currPlayer;}
+    public Player getCurrPlayer() {return nextToMove.isWhite() ? getWhitePlayer() : getBlackPlayer();}
     public Pawn getEnPassantPawn() {return enPassantPawn;}
     public Move getTransactionMove() {return transactionMove;}
+    public BitBoard getBitBoard() {return bitBoard;}
+    public int getCastlingRights() {return castlingRights;}
+    public long getZobristKey() {return zobristKey;}
+    public int getHalfMoveClock() {return halfMoveClock;}
+    public int getFullMoveNumber() {return fullMoveNumber;}
     public Square getSquare(final int position) {return squareList.get(position);}
     public List<Square> getSquareList() {return squareList;}
 
+    /**
+     * Players (and their legal Moves) are created on first access, since many Boards are never asked for them
+     * (e.g. Boards thrown away after a single Move was validated). A Board may be shared between threads, so two
+     * threads could both create a Player; the Players are equal and immutable, so either one may be kept.
+     * @return the black Player of this Board.
+     */
+    public Player getBlackPlayer() {
+        if (blackPlayer == null) {
+            blackPlayer = new BlackPlayer(this);
+        }
+        return blackPlayer;
+    }
+
+    /**
+     * @return the white Player of this Board (created on first access, see getBlackPlayer).
+     */
+    public Player getWhitePlayer() {
+        if (whitePlayer == null) {
+            whitePlayer = new WhitePlayer(this);
+        }
+        return whitePlayer;
+    }
+
     /**
      * Create the initial chess board positioning.
      * @return an instance of this class.
@@ -117,6 +159,129 @@ public class Board {
         return b.createBoard();
     }
 
+    /**
+     * Set up a position in Forsyth-Edwards Notation (e.g. SearchBoard.START_FEN).
+     * @param fen piece placement (from the eighth row), color to move, castling rights, en passant Square, etc.
+     * @return an instance of this class.
+     * @throws IllegalArgumentException if the FEN can't be read.
+     */
+    public static Board fromFen(final String fen) {
+        final FenParser parser = new FenParser();
+        parser.parse(fen);
+        return fromFen(parser);
+    }
+
+    /**
+     * Castling rights are kept as "first move" flags of Kings and Rooks on their initial Squares, and Pawns on their
+     * initial row may still perform a double move. The en passant Pawn is the one that "jumped over" the Square.
+     * @param parser holding the last position it read.
+     * @return an instance of this class.
+     * @throws IllegalArgumentException if there is no Pawn to capture en passant.
+     */
+    public static Board fromFen(final FenParser parser) {
+        final BoardBuilder builder = new BoardBuilder();
+        final int rights = parser.getCastlingRights();
+
+        for (int pos = 0; pos < SQUARES_ON_BOARD; pos++) {
+            final int index = parser.getBoardIndex(pos);
+            if (index == SearchBoard.NO_PIECE) {
+                continue;
+            }
+            final PieceType type = SearchBoard.getPieceType(index);
+            final PlayerColor color = (SearchBoard.getColorOrdinal(index) == WHITE.ordinal()) ? WHITE : BLACK;
+            builder.setPiece(createPiece(type, color, pos, rights));
+        }
+
+        final int enPassantSquare = parser.getEnPassantSquare();
+        if (enPassantSquare != SearchBoard.NO_SQUARE) {
+            final PlayerColor pawnColor = parser.getNextToMove().getOppColor();
+            final Piece pawn = builder.squarePieceMap.get(enPassantSquare + pawnColor.getMoveDir() * SQUARES_ON_ROW);
+            if (pawn == null || pawn.getType() != PieceType.PAWN || pawn.getColor() != pawnColor) {
+                throw new IllegalArgumentException("Invalid FEN (no Pawn to capture en passant)");
+            }
+            builder.setEnPassantPawn((Pawn) pawn);
+        }
+
+        builder.setNextToMove(parser.getNextToMove());
+        builder.setMoveCounters(parser.getHalfMoveClock(), parser.getFullMoveNumber());
+        return builder.createBoard();
+    }
+
+    private static Piece createPiece(final PieceType type, final PlayerColor color, final int squarePos,
+                                     final int rights) {
+        switch (type) {
+            case KING:
+                return new King(squarePos, color, isCastlingKing(squarePos, color, rights));
+            case QUEEN:
+                return new Queen(squarePos, color, false);
+            case ROOK:
+                return new Rook(squarePos, color, (squarePos == 63 && (rights & WHITE_SHORT_CASTLING) != 0) ||
+                                                  (squarePos == 56 && (rights & WHITE_LONG_CASTLING) != 0) ||
+                                                  (squarePos == 7 && (rights & BLACK_SHORT_CASTLING) != 0) ||
+                                                  (squarePos == 0 && (rights & BLACK_LONG_CASTLING) != 0));
+            case KNIGHT:
+                return new Knight(squarePos, color, false);
+            case BISHOP:
+                return new Bishop(squarePos, color, false);
+            default:
+                final int row = BoardUtilities.getRow(squarePos);
+                return new Pawn(squarePos, color, color.isWhite() ? row == 6 : row == 1);
+        }
+    }
+
+    private static boolean isCastlingKing(final int squarePos, final PlayerColor color, final int rights) {
+        return color.isWhite() ? squarePos == 60 && (rights & (WHITE_SHORT_CASTLING | WHITE_LONG_CASTLING)) != 0
+                               : squarePos == 4 && (rights & (BLACK_SHORT_CASTLING | BLACK_LONG_CASTLING)) != 0;
+    }
+
+    /**
+     * Write the position in Forsyth-Edwards Notation. Castling rights are those the "first move" flags of Kings and
+     * Rooks allow; the en passant Square is written whenever the last Move was a Pawn double move.
+     * @return FEN of this Board (e.g. SearchBoard.START_FEN for the initial Board).
+     */
+    public String toFen() {
+        final StringBuilder sb = new StringBuilder(90);
+        int empty = 0;
+        for (int pos = 0; pos < SQUARES_ON_BOARD; pos++) {
+            final Piece piece = squareList.get(pos).getPiece();
+            if (piece == null) {
+                empty++;
+            } else {
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                final char letter = piece.getType().toString().charAt(0);
+                sb.append(piece.getColor().isWhite() ? Character.toUpperCase(letter) : letter);
+            }
+            if ((pos + 1) % SQUARES_ON_ROW == 0) {
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                if (pos + 1 < SQUARES_ON_BOARD) {
+                    sb.append('/');
+                }
+            }
+        }
+
+        sb.append(' ').append(nextToMove.isWhite() ? 'w' : 'b').append(' ');
+        if (castlingRights == 0) sb.append('-');
+        if ((castlingRights & WHITE_SHORT_CASTLING) != 0) sb.append('K');
+        if ((castlingRights & WHITE_LONG_CASTLING) != 0) sb.append('Q');
+        if ((castlingRights & BLACK_SHORT_CASTLING) != 0) sb.append('k');
+        if ((castlingRights & BLACK_LONG_CASTLING) != 0) sb.append('q');
+
+        sb.append(' ');
+        if (enPassantPawn != null) { // Square behind the Pawn, as seen from its own moving direction
+            final int pawnPos = enPassantPawn.getSquarePos();
+            sb.append(BoardUtilities.INSTANCE.getPGNFromPos(pawnPos - enPassantPawn.getColor().getMoveDir() * 8));
+        } else {
+            sb.append('-');
+        }
+        return sb.append(' ').append(halfMoveClock).append(' ').append(fullMoveNumber).toString();
+    }
+
     /**
      * Loop through each squarePos on Board (0-63) and create Squares (both empty & occupied).
      * @param builder TODO: comment this
@@ -133,6 +298,51 @@ public class Board {
         return ImmutableList.copyOf(squares);
     }
 
+    /**
+     * Castling rights are derived from the "first move" flags of the Kings and Rooks on their initial Squares.
+     * @return flags for every castling still available (WHITE_SHORT_CASTLING, etc.).
+     */
+    private int createCastlingRights() {
+        int rights = 0;
+        if (isUnmoved(60, KING, WHITE)) {
+            if (isUnmoved(63, ROOK, WHITE)) rights |= WHITE_SHORT_CASTLING;
+            if (isUnmoved(56, ROOK, WHITE)) rights |= WHITE_LONG_CASTLING;
+        }
+        if (isUnmoved(4, KING, BLACK)) {
+            if (isUnmoved(7, ROOK, BLACK)) rights |= BLACK_SHORT_CASTLING;
+            if (isUnmoved(0, ROOK, BLACK)) rights |= BLACK_LONG_CASTLING;
+        }
+        return rights;
+    }
+
+    private boolean isUnmoved(final int squarePos, final PieceType type, final PlayerColor color) {
+        final Piece p = getSquare(squarePos).getPiece();
+        return p != null && p.getType() == type && p.getColor() == color && p.isFirstMove();
+    }
+
+    private static int[] initializeCastlingMasks() {
+        final int[] masks = new int[SQUARES_ON_BOARD];
+        Arrays.fill(masks, WHITE_SHORT_CASTLING | WHITE_LONG_CASTLING | BLACK_SHORT_CASTLING | BLACK_LONG_CASTLING);
+        masks[60] &= ~(WHITE_SHORT_CASTLING | WHITE_LONG_CASTLING); // white King
+        masks[63] &= ~WHITE_SHORT_CASTLING; // white kingside Rook
+        masks[56] &= ~WHITE_LONG_CASTLING;  // white queenside Rook
+        masks[4] &= ~(BLACK_SHORT_CASTLING | BLACK_LONG_CASTLING); // black King
+        masks[7] &= ~BLACK_SHORT_CASTLING;  // black kingside Rook
+        masks[0] &= ~BLACK_LONG_CASTLING;   // black queenside Rook
+        return masks;
+    }
+
+    /**
+     * A Move from or to a King's or Rook's initial Square (moving, or capturing them) removes castling rights.
+     * @param castlingRights before Move.
+     * @param from squarePos of moved Piece.
+     * @param to destination squarePos of moved Piece.
+     * @return castling rights after Move.
+     */
+    public static int getCastlingRightsAfterMove(final int castlingRights, final int from, final int to) {
+        return castlingRights & CASTLING_MASKS[from] & CASTLING_MASKS[to];
+    }
+
     private static Collection<Piece> getPieces(final BoardBuilder builder, final PlayerColor color) {
         final List<Piece> ingamePieces = new ArrayList<>(16);
         for (final Piece p : builder.squarePieceMap.values()) {
@@ -161,8 +371,8 @@ public class Board {
     public Iterable<Move> getAllLegalMoves() {
         return Iterables.unmodifiableIterable(
                 Iterables.concat(
-                        whitePlayer.getLegalMoves(),
-                        blackPlayer.getLegalMoves()
+                        getWhitePlayer().getLegalMoves(),
+                        getBlackPlayer().getLegalMoves()
                 )
         );
     }
@@ -174,6 +384,9 @@ public class Board {
         private PlayerColor nextToMove;
         private Pawn enPassantPawn; // holds Pawn that could be captured "en passant" by opposing Player
         private Move transactionMove;
+        private Long zobristKey; // null if key should be created from scratch
+        private int halfMoveClock;
+        private int fullMoveNumber = FenParser.DEFAULT_FULL_MOVE_NUMBER;
 
         public BoardBuilder() {
             squarePieceMap = new HashMap<>(33, 1.0f);
@@ -193,12 +406,7 @@ public class Board {
         }
 
         public BoardBuilder setNextToMove(final PlayerColor color) {
-
-            // DISPLAY IN BOTTOM STATUS BAR
-            if (color == WHITE) StatusBar.setStatus("White to move..");
-            if (color == BLACK) StatusBar.setStatus("Black to move..");
-
-            nextToMove = color;
+            nextToMove = color; // the game's Board is published by GameEvents (not every Board built)
             return this;
         }
 
@@ -212,6 +420,17 @@ public class Board {
             return this;
         }
 
+        public BoardBuilder setZobristKey(final long zobristKey) {
+            this.zobristKey = zobristKey;
+            return this;
+        }
+
+        public BoardBuilder setMoveCounters(final int halfMoveClock, final int fullMoveNumber) {
+            this.halfMoveClock = halfMoveClock;
+            this.fullMoveNumber = fullMoveNumber;
+            return this;
+        }
+
     }
 
 }
\ No newline at end of file
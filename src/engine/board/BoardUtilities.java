@@ -3,6 +3,7 @@ package engine.board;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,58 +18,108 @@ public enum BoardUtilities {
     public static final int SQUARES_ON_BOARD = 64; // number of Squares on chess Board
     public static final int SQUARES_ON_ROW = SQUARES_ON_BOARD / 8; // number of Squares on each row
     public static final int SQUARES_ON_COL = SQUARES_ON_BOARD / 8; // number of Squares on each column
-    public static final List<Boolean> COLUMN_A = initCol(0); // first file (column) of Board
-    public static final List<Boolean> COLUMN_B = initCol(1); // second file..
-    public static final List<Boolean> COLUMN_C = initCol(2); // third file..
-    public static final List<Boolean> COLUMN_D = initCol(3); // fourth file..
-    public static final List<Boolean> COLUMN_E = initCol(4); // fifth file..
-    public static final List<Boolean> COLUMN_F = initCol(5); // sixth file..
-    public static final List<Boolean> COLUMN_G = initCol(6); // seventh file..
-    public static final List<Boolean> COLUMN_H = initCol(7); // eighth file..
-    public static final List<Boolean> ROW_8 = initRow(0);  // eighth rank (row) of Board
-    public static final List<Boolean> ROW_7 = initRow(8);  // seventh rank..
-    public static final List<Boolean> ROW_6 = initRow(16); // sixth rank..
-    public static final List<Boolean> ROW_5 = initRow(24); // fifth rank..
-    public static final List<Boolean> ROW_4 = initRow(32); // fourth rank..
-    public static final List<Boolean> ROW_3 = initRow(40); // third rank..
-    public static final List<Boolean> ROW_2 = initRow(48); // second rank..
-    public static final List<Boolean> ROW_1 = initRow(56); // first rank..
+    public static final long COLUMN_A = initCol(0); // first file (column) of Board
+    public static final long COLUMN_B = initCol(1); // second file..
+    public static final long COLUMN_C = initCol(2); // third file..
+    public static final long COLUMN_D = initCol(3); // fourth file..
+    public static final long COLUMN_E = initCol(4); // fifth file..
+    public static final long COLUMN_F = initCol(5); // sixth file..
+    public static final long COLUMN_G = initCol(6); // seventh file..
+    public static final long COLUMN_H = initCol(7); // eighth file..
+    public static final long ROW_8 = initRow(0);  // eighth rank (row) of Board
+    public static final long ROW_7 = initRow(8);  // seventh rank..
+    public static final long ROW_6 = initRow(16); // sixth rank..
+    public static final long ROW_5 = initRow(24); // fifth rank..
+    public static final long ROW_4 = initRow(32); // fourth rank..
+    public static final long ROW_3 = initRow(40); // third rank..
+    public static final long ROW_2 = initRow(48); // second rank..
+    public static final long ROW_1 = initRow(56); // first rank..
+
+    private static final int[][] KNIGHT_STEPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_STEPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    private static final byte[] SQUARE_TO_COLUMN = new byte[SQUARES_ON_BOARD]; // 0 (a) to 7 (h)
+    private static final byte[] SQUARE_TO_ROW = new byte[SQUARES_ON_BOARD]; // 0 (8th rank) to 7 (1st rank)
+    private static final int[][] KNIGHT_TARGETS = new int[SQUARES_ON_BOARD][]; // destination Squares per Square
+    private static final int[][] KING_TARGETS = new int[SQUARES_ON_BOARD][];
+    private static final byte[][] DISTANCE = new byte[SQUARES_ON_BOARD][SQUARES_ON_BOARD]; // King steps between
+    private static final long[][] BETWEEN = new long[SQUARES_ON_BOARD][SQUARES_ON_BOARD]; // Squares on line between
+
+    static {
+        for (int pos = 0; pos < SQUARES_ON_BOARD; pos++) {
+            SQUARE_TO_COLUMN[pos] = (byte) (pos % SQUARES_ON_ROW);
+            SQUARE_TO_ROW[pos] = (byte) (pos / SQUARES_ON_ROW);
+        }
+        for (int pos = 0; pos < SQUARES_ON_BOARD; pos++) {
+            KNIGHT_TARGETS[pos] = initTargets(pos, KNIGHT_STEPS);
+            KING_TARGETS[pos] = initTargets(pos, KING_STEPS);
+            for (int other = 0; other < SQUARES_ON_BOARD; other++) {
+                DISTANCE[pos][other] = (byte) Math.max(Math.abs(SQUARE_TO_ROW[pos] - SQUARE_TO_ROW[other]),
+                                                       Math.abs(SQUARE_TO_COLUMN[pos] - SQUARE_TO_COLUMN[other]));
+                BETWEEN[pos][other] = initBetween(pos, other);
+            }
+        }
+    }
 
     /**
      * @param colNumber representing each file (column) on the Board (e.g. 0/a, 1/b, etc).
-     * @return a list of booleans where only the index numbers representing each column is set to true.
+     * @return a mask where only the bits of the Squares in given column are set.
      */
-    public static List<Boolean> initCol(int colNumber) {
-        final Boolean[] cols = new Boolean[SQUARES_ON_BOARD];
-
-        for(int i = 0; i < cols.length; i++) {
-            cols[i] = false;
-        }
+    private static long initCol(int colNumber) {
+        long col = 0L;
         do {
-            cols[colNumber] = true;
+            col |= 1L << colNumber;
             colNumber += SQUARES_ON_COL;
         } while (colNumber < SQUARES_ON_BOARD);
 
-        return ImmutableList.copyOf(cols);
-
+        return col;
     }
 
     /**
      * @param squarePos position at which the row begins (counting from top-left to bottom-right; 0 to 63).
-     * @return a list of booleans where only the index numbers representing each row is set to true.
+     * @return a mask where only the bits of the Squares in given row are set.
      */
-    private static List<Boolean> initRow(int squarePos) {
-        final Boolean[] rows = new Boolean[SQUARES_ON_BOARD];
-
-        for(int i = 0; i < rows.length; i++) {
-            rows[i] = false;
-        }
+    private static long initRow(int squarePos) {
+        long row = 0L;
         do {
-            rows[squarePos] = true;
+            row |= 1L << squarePos;
             squarePos++;
         } while (squarePos % SQUARES_ON_ROW != 0);
 
-        return ImmutableList.copyOf(rows);
+        return row;
+    }
+
+    /**
+     * @return squarePos of every on-board Square reached by one of the (row, column) steps from given Square.
+     */
+    private static int[] initTargets(final int squarePos, final int[][] steps) {
+        final int[] targets = new int[steps.length];
+        int count = 0;
+        for (final int[] step : steps) {
+            final int row = SQUARE_TO_ROW[squarePos] + step[0];
+            final int col = SQUARE_TO_COLUMN[squarePos] + step[1];
+            if (row >= 0 && row < SQUARES_ON_ROW && col >= 0 && col < SQUARES_ON_ROW) { // no wrapping around edges
+                targets[count++] = row * SQUARES_ON_ROW + col;
+            }
+        }
+        return Arrays.copyOf(targets, count);
+    }
+
+    /**
+     * @return mask of Squares strictly between two Squares on a shared row, column or diagonal (else empty).
+     */
+    private static long initBetween(final int from, final int to) {
+        final int rowDiff = SQUARE_TO_ROW[to] - SQUARE_TO_ROW[from];
+        final int colDiff = SQUARE_TO_COLUMN[to] - SQUARE_TO_COLUMN[from];
+        if (from == to || (rowDiff != 0 && colDiff != 0 && Math.abs(rowDiff) != Math.abs(colDiff))) {
+            return 0L; // not on a line
+        }
+
+        final int step = Integer.signum(rowDiff) * SQUARES_ON_ROW + Integer.signum(colDiff);
+        long between = 0L;
+        for (int pos = from + step; pos != to; pos += step) {
+            between |= 1L << pos;
+        }
+        return between;
     }
 
     /**
@@ -79,6 +130,40 @@ public enum BoardUtilities {
         return squarePos >= FIRST_SQUARE && squarePos < SQUARES_ON_BOARD;
     }
 
+    /**
+     * @param mask of Squares (e.g. COLUMN_A or ROW_8).
+     * @param squarePos position of Square (0-63).
+     * @return true (if the Square's bit is set in mask).
+     */
+    public static boolean isSquareOnMask(final long mask, final int squarePos) {
+        return (mask & (1L << squarePos)) != 0;
+    }
+
+    public static int getColumn(final int squarePos) {return SQUARE_TO_COLUMN[squarePos];}
+    public static int getRow(final int squarePos) {return SQUARE_TO_ROW[squarePos];}
+
+    /**
+     * @param squarePos of Knight.
+     * @return destination Squares of a Knight on given Square (shared array, not to be modified).
+     */
+    public static int[] getKnightTargets(final int squarePos) {return KNIGHT_TARGETS[squarePos];}
+
+    /**
+     * @param squarePos of King.
+     * @return destination Squares of a King on given Square (shared array, not to be modified).
+     */
+    public static int[] getKingTargets(final int squarePos) {return KING_TARGETS[squarePos];}
+
+    /**
+     * @return number of King steps between two Squares (i.e. max. of row and column distance).
+     */
+    public static int getDistance(final int from, final int to) {return DISTANCE[from][to];}
+
+    /**
+     * @return mask of Squares strictly between two Squares on a shared row, column or diagonal (else empty).
+     */
+    public static long getBetween(final int from, final int to) {return BETWEEN[from][to];}
+
     // TODO: implement usage of these two methods for deciding checkmate or check situations
     public static boolean isGameCheckmated(final Board board) {
         return board.getCurrPlayer().isCheckmated() || board.getCurrPlayer().isCheckmated();
@@ -87,7 +172,7 @@ public enum BoardUtilities {
         return board.getWhitePlayer().isChecked() || board.getBlackPlayer().isChecked();
     }
 
-    // TODO: implement usage, or remove these methods
+    // SQUARE NAMES (e.g. "e4"), as used by Move notation and FEN
     private static List<String> initializePGNArray() {
         return ImmutableList.copyOf(new String[]{
                 "a8", "b8", "c8", "d8", "e8", "f8", "g8", "h8",
@@ -107,8 +192,13 @@ public enum BoardUtilities {
         }
         return ImmutableMap.copyOf(positionPGNMap);
     }
+    /**
+     * @param PGN name of Square (e.g. "e4").
+     * @return squarePos of Square, or SearchBoard.NO_SQUARE if the name is unknown.
+     */
     public int getPositionForPGN(final String PGN) {
-        return PGN_TO_POSITION.get(PGN);
+        final Integer squarePos = PGN_TO_POSITION.get(PGN);
+        return (squarePos != null) ? squarePos : SearchBoard.NO_SQUARE;
     }
     public String getPGNFromPos(final int squarePosition) {
         return PGN_NOTATION.get(squarePosition);
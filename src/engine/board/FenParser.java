@@ -0,0 +1,255 @@
+package engine.board;
+
+import engine.pieces.Piece.PieceType;
+import engine.players.PlayerColor;
+
+import java.util.Arrays;
+
+import static engine.board.BoardUtilities.SQUARES_ON_BOARD;
+import static engine.board.BoardUtilities.SQUARES_ON_ROW;
+import static engine.board.SearchBoard.NO_PIECE;
+import static engine.board.SearchBoard.NO_SQUARE;
+
+/**
+ * Reads positions in Forsyth-Edwards Notation (FEN), or Extended Position Description (EPD) with its operations
+ * (e.g. "bm Nf3; id \"WAC.001\";") following the four position fields.
+ * A parser is reused for any number of positions: the fields of the last one are kept in arrays and primitives, and
+ * a record is read from a char array without creating Strings, so e.g. a FenReader loads millions of positions from a
+ * file at next to no allocation. Boards are set up from the parser by Board.fromFen() and SearchBoard.setFen().
+ *
+ * Only placement and color to move are required; castling, en passant and the Move counters may be left out (as in
+ * the PerftPosition test positions). Castling rights are read as given, the Boards keep only those that King and
+ * Rook on their initial Squares allow. Pawns on the first or eighth rank are rejected (the search couldn't move them).
+ */
+public final class FenParser {
+
+    public static final int DEFAULT_FULL_MOVE_NUMBER = 1;
+
+    private static final int[] LETTER_TO_INDEX = initializeLetters(); // board index (see BitBoard) of Piece letter
+    private static final int WHITE_KING = BitBoard.getBoardIndex(PlayerColor.WHITE, PieceType.KING);
+    private static final int BLACK_KING = BitBoard.getBoardIndex(PlayerColor.BLACK, PieceType.KING);
+    private static final int WHITE_PAWN = BitBoard.getBoardIndex(PlayerColor.WHITE, PieceType.PAWN);
+    private static final int BLACK_PAWN = BitBoard.getBoardIndex(PlayerColor.BLACK, PieceType.PAWN);
+
+    private final int[] squares = new int[SQUARES_ON_BOARD]; // board index of occupying Piece, or NO_PIECE
+    private PlayerColor nextToMove;
+    private int castlingRights; // as Board flags (e.g. Board.WHITE_SHORT_CASTLING)
+    private int enPassantSquare; // Square "jumped over" by last Pawn double move, or NO_SQUARE
+    private int halfMoveClock;
+    private int fullMoveNumber;
+    private char[] buffer = new char[128]; // copy of a record read from a String
+    private char[] chars; // holding last record read
+    private int start; // of last record in chars
+    private int end;
+    private int operationsStart; // of EPD operations in chars (equal to end if none)
+
+    private static int[] initializeLetters() {
+        final int[] letters = new int[128];
+        Arrays.fill(letters, NO_PIECE);
+        for (final PieceType type : PieceType.values()) {
+            final char letter = type.toString().charAt(0); // lower case
+            letters[letter] = BitBoard.getBoardIndex(PlayerColor.BLACK, type);
+            letters[Character.toUpperCase(letter)] = BitBoard.getBoardIndex(PlayerColor.WHITE, type);
+        }
+        return letters;
+    }
+
+    /**
+     * @param fen a FEN (or EPD) record.
+     * @throws IllegalArgumentException if the record can't be read.
+     */
+    public void parse(final String fen) {
+        if (fen.length() > buffer.length) {
+            buffer = new char[fen.length()];
+        }
+        fen.getChars(0, fen.length(), buffer, 0);
+        parse(buffer, 0, fen.length());
+    }
+
+    /**
+     * @param source holding a FEN (or EPD) record; kept until the next record is read (see getOperations).
+     * @param from index of the record's first char.
+     * @param to index after the record's last char.
+     * @throws IllegalArgumentException if the record can't be read.
+     */
+    public void parse(final char[] source, final int from, final int to) {
+        chars = source;
+        start = from;
+        end = to;
+        Arrays.fill(squares, NO_PIECE);
+        castlingRights = 0;
+        enPassantSquare = NO_SQUARE;
+        halfMoveClock = 0;
+        fullMoveNumber = DEFAULT_FULL_MOVE_NUMBER;
+
+        int i = parsePlacement(skipSpaces(from));
+        i = skipSpaces(i);
+        if (i >= end || (chars[i] != 'w' && chars[i] != 'b')) {
+            throw invalid("color to move");
+        }
+        nextToMove = (chars[i] == 'w') ? PlayerColor.WHITE : PlayerColor.BLACK;
+        i = skipSpaces(endField(i + 1, "color to move"));
+        if (i < end) {
+            i = skipSpaces(parseCastling(i));
+        }
+        if (i < end) {
+            i = skipSpaces(parseEnPassant(i));
+        }
+        if (i < end && isDigit(chars[i])) { // FEN Move counters (EPD operations start with a letter)
+            int next = skipDigits(i);
+            halfMoveClock = parseNumber(i, next);
+            i = skipSpaces(next);
+            if (i < end && isDigit(chars[i])) {
+                next = skipDigits(i);
+                fullMoveNumber = Math.max(parseNumber(i, next), DEFAULT_FULL_MOVE_NUMBER);
+                i = skipSpaces(next);
+            }
+        }
+        operationsStart = i;
+    }
+
+    private int parsePlacement(int i) {
+        int pos = 0;
+        int whiteKings = 0;
+        int blackKings = 0;
+        for (; i < end && !isSpace(chars[i]); i++) {
+            final char c = chars[i];
+            if (c == '/') {
+                if (pos == 0 || pos % SQUARES_ON_ROW != 0) {
+                    throw invalid("row with other than 8 Squares");
+                }
+            } else if (c >= '1' && c <= '8') {
+                pos += c - '0';
+            } else {
+                final int index = (c < LETTER_TO_INDEX.length) ? LETTER_TO_INDEX[c] : NO_PIECE;
+                if (index == NO_PIECE || pos >= SQUARES_ON_BOARD) {
+                    throw invalid("unknown Piece or too many Squares");
+                }
+                if ((index == WHITE_PAWN || index == BLACK_PAWN) &&
+                    (pos < SQUARES_ON_ROW || pos >= SQUARES_ON_BOARD - SQUARES_ON_ROW)) {
+                    throw invalid("Pawn on first or eighth rank");
+                }
+                if (index == WHITE_KING) {
+                    whiteKings++;
+                } else if (index == BLACK_KING) {
+                    blackKings++;
+                }
+                squares[pos++] = index;
+            }
+            if (pos > SQUARES_ON_BOARD) {
+                throw invalid("too many Squares");
+            }
+        }
+        if (pos != SQUARES_ON_BOARD || whiteKings != 1 || blackKings != 1) {
+            throw invalid("64 Squares and one King per color needed");
+        }
+        return i;
+    }
+
+    private int parseCastling(int i) {
+        if (chars[i] == '-') {
+            return endField(i + 1, "castling rights");
+        }
+        for (; i < end && !isSpace(chars[i]); i++) {
+            switch (chars[i]) {
+                case 'K': castlingRights |= Board.WHITE_SHORT_CASTLING; break;
+                case 'Q': castlingRights |= Board.WHITE_LONG_CASTLING; break;
+                case 'k': castlingRights |= Board.BLACK_SHORT_CASTLING; break;
+                case 'q': castlingRights |= Board.BLACK_LONG_CASTLING; break;
+                default: throw invalid("castling rights");
+            }
+        }
+        return i;
+    }
+
+    /**
+     * The en passant Square is on the sixth row (from white's side) if white is to move, else on the third.
+     */
+    private int parseEnPassant(final int i) {
+        if (chars[i] == '-') {
+            return endField(i + 1, "en passant Square");
+        }
+        final int row = nextToMove.isWhite() ? 2 : 5; // counting from the eighth rank
+        if (i + 1 >= end || chars[i] < 'a' || chars[i] > 'h' || chars[i + 1] != '8' - row) {
+            throw invalid("en passant Square");
+        }
+        enPassantSquare = row * SQUARES_ON_ROW + (chars[i] - 'a');
+        return endField(i + 2, "en passant Square");
+    }
+
+    private int parseNumber(final int from, final int to) {
+        if (to - from > 6) {
+            throw invalid("Move counter");
+        }
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            number = number * 10 + (chars[i] - '0');
+        }
+        return number;
+    }
+
+    /**
+     * @return index i, if a field ends there.
+     */
+    private int endField(final int i, final String field) {
+        if (i < end && !isSpace(chars[i])) {
+            throw invalid(field);
+        }
+        return i;
+    }
+
+    private int skipSpaces(int i) {
+        while (i < end && isSpace(chars[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private int skipDigits(int i) {
+        while (i < end && isDigit(chars[i])) {
+            i++;
+        }
+        return endField(i, "Move counter");
+    }
+
+    private static boolean isSpace(final char c) {return c == ' ' || c == '\t';}
+    private static boolean isDigit(final char c) {return c >= '0' && c <= '9';}
+
+    private IllegalArgumentException invalid(final String reason) {
+        return new IllegalArgumentException("Invalid FEN (" + reason + "): " + new String(chars, start, end - start));
+    }
+
+    /**
+     * @param squarePos of Square (0-63).
+     * @return board index (see BitBoard) of the Piece on the Square, or NO_PIECE.
+     */
+    public int getBoardIndex(final int squarePos) {return squares[squarePos];}
+    public PlayerColor getNextToMove() {return nextToMove;}
+    public int getCastlingRights() {return castlingRights;}
+    public int getEnPassantSquare() {return enPassantSquare;}
+    public int getHalfMoveClock() {return halfMoveClock;}
+    public int getFullMoveNumber() {return fullMoveNumber;}
+    public boolean hasOperations() {return operationsStart < end;}
+
+    /**
+     * @return EPD operations of the last record (e.g. "bm Nf3; id \"WAC.001\";"), or "" for a FEN.
+     */
+    public String getOperations() {
+        return new String(chars, operationsStart, end - operationsStart).trim();
+    }
+
+    /**
+     * @param opcode of an EPD operation (e.g. "bm", or "id").
+     * @return operands of the last record's operation (without quotes), or null if it has none with the opcode.
+     */
+    public String getOperation(final String opcode) {
+        for (final String operation : getOperations().split(";")) {
+            final String op = operation.trim();
+            if (op.startsWith(opcode) && (op.length() == opcode.length() || isSpace(op.charAt(opcode.length())))) {
+                return op.substring(opcode.length()).trim().replace("\"", "");
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,127 @@
+package engine.board;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams FEN or EPD records from a file (one per line) into a FenParser, e.g. for test suites or analysis inputs
+ * of millions of positions. Bytes are read in large blocks and copied into a reused line buffer, and the parser reads
+ * the line in place; so apart from growing the line buffer, no objects are created per line.
+ * Empty lines and lines starting with '#' are skipped. Files are read as ASCII (other bytes as ISO-8859-1).
+ *
+ * Typical use, with a single SearchBoard for all positions:
+ * <pre>
+ *     try (FenReader reader = FenReader.open(path)) {
+ *         while (reader.next()) {
+ *             board.setFen(reader.getParser());
+ *             ..
+ *         }
+ *     }
+ * </pre>
+ */
+public final class FenReader implements Closeable {
+
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final FenParser parser = new FenParser();
+    private final byte[] block = new byte[BLOCK_SIZE];
+    private int blockPos; // next byte to read in block
+    private int blockEnd; // number of bytes in block, -1 at end of input
+    private char[] line = new char[256];
+    private long lineNumber; // of last line read (counting from 1)
+
+    public FenReader(final InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * @param file of FEN or EPD records.
+     * @return a reader of the file (to be closed by the caller).
+     * @throws IOException if the file can't be opened.
+     */
+    public static FenReader open(final Path file) throws IOException {
+        return new FenReader(Files.newInputStream(file));
+    }
+
+    /**
+     * Read the next position into the parser.
+     * @return false at end of input.
+     * @throws IOException if reading fails.
+     * @throws IllegalArgumentException if a record can't be read (with its line number).
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            final int length = readLine();
+            if (length < 0) {
+                return false;
+            }
+            int first = 0;
+            while (first < length && (line[first] == ' ' || line[first] == '\t')) {
+                first++;
+            }
+            if (first == length || line[first] == '#') {
+                continue;
+            }
+            try {
+                parser.parse(line, first, length);
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return number of chars read into line (without line terminator), or -1 at end of input.
+     */
+    private int readLine() throws IOException {
+        int length = 0;
+        boolean read = false; // any byte of a line read (so an empty last line isn't a line)
+        while (true) {
+            if (blockPos == blockEnd) {
+                blockEnd = in.read(block, 0, BLOCK_SIZE);
+                blockPos = 0;
+                if (blockEnd < 0) {
+                    blockEnd = 0;
+                    if (!read) {
+                        return -1;
+                    }
+                    break;
+                }
+                continue;
+            }
+            final byte b = block[blockPos++];
+            read = true;
+            if (b == '\n') {
+                break;
+            }
+            if (length == line.length) {
+                final char[] longer = new char[line.length * 2];
+                System.arraycopy(line, 0, longer, 0, length);
+                line = longer;
+            }
+            line[length++] = (char) (b & 0xFF);
+        }
+        lineNumber++;
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * @return parser holding the position last read by next() (valid until next() is called again).
+     */
+    public FenParser getParser() {return parser;}
+    public long getLineNumber() {return lineNumber;}
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+}
@@ -0,0 +1,38 @@
+package engine.board;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Changes of the game's state, for front ends (e.g. the GUI's StatusBar) to follow without the engine knowing them.
+ * The Board of the game is published once per committed change (a Move made, undone or redone, or a new game);
+ * Boards created while validating Moves or searching are never published, so headless runs pay nothing for it.
+ */
+public enum GameEvents {
+
+    INSTANCE;
+
+    private final List<Consumer<Board>> boardListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param listener called with the game's Board after each change, on the thread that committed it.
+     */
+    public void addBoardListener(final Consumer<Board> listener) {
+        boardListeners.add(listener);
+    }
+
+    public void removeBoardListener(final Consumer<Board> listener) {
+        boardListeners.remove(listener);
+    }
+
+    /**
+     * @param board of the game, after a Move was committed on it (or the game was started or reset).
+     */
+    public void publishBoard(final Board board) {
+        for (final Consumer<Board> listener : boardListeners) {
+            listener.accept(board);
+        }
+    }
+
+}
@@ -0,0 +1,506 @@
+package engine.board;
+
+import engine.moves.Move;
+import engine.moves.PackedMove;
+import engine.pieces.Piece;
+import engine.pieces.Piece.PieceType;
+import engine.players.PlayerColor;
+
+import java.util.Arrays;
+
+import static engine.board.BitBoard.*;
+import static engine.board.BoardUtilities.SQUARES_ON_BOARD;
+import static engine.board.BoardUtilities.SQUARES_ON_ROW;
+import static engine.pieces.Piece.PieceType.*;
+
+/**
+ * Mutable Board used by searching and analysis code, kept alongside the immutable Board used by the GUI.
+ * Moves are performed in place with makeMove(), and taken back with unmakeMove(), which restores the state
+ * saved on an internal stack, so walking through a game tree never allocates new Board objects.
+ */
+public final class SearchBoard {
+
+    public static final int NO_PIECE = -1; // "board index" of an empty Square
+    public static final int NO_SQUARE = -1; // e.g. no en passant Square available
+    public static final int MAX_PLY = 1024; // max number of Moves that can be made (i.e. stack depth)
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+
+    private final long[] pieceBoards = new long[PIECE_BOARDS]; // indexed as in BitBoard (color/PieceType)
+    private final long[] occupancy = new long[COLORS.length]; // indexed by PlayerColor ordinal
+    private final int[] squares = new int[SQUARES_ON_BOARD]; // board index of occupying Piece, or NO_PIECE
+    private PlayerColor currColor;
+    private int castlingRights;
+    private int enPassantSquare; // Square "jumped over" by last Pawn double move, or NO_SQUARE
+    private int halfMoveClock; // Moves since last capture or Pawn move (for 50 moves rule)
+    private int ply; // number of Moves currently made on this Board
+    private long zobristKey; // updated incrementally by every Piece placement and state change
+    private long pawnKey; // Zobrist key of the Pawns only (e.g. for caching Pawn structure evaluation)
+    private final int[] middlegameScores = new int[COLORS.length]; // PieceSquareTables sums, by PlayerColor ordinal
+    private final int[] endgameScores = new int[COLORS.length];
+    private int phase; // sum of PieceSquareTables phase weights of all Pieces
+
+    // STATE SAVED BY makeMove(), RESTORED BY unmakeMove()
+    private final int[] moveStack = new int[MAX_PLY]; // packed Moves
+    private final int[] capturedStack = new int[MAX_PLY]; // board index of captured Piece, or NO_PIECE
+    private final int[] castlingStack = new int[MAX_PLY];
+    private final int[] enPassantStack = new int[MAX_PLY];
+    private final int[] halfMoveStack = new int[MAX_PLY];
+    private final long[] keyStack = new long[MAX_PLY];
+
+    private SearchBoard() {
+        Arrays.fill(squares, NO_PIECE);
+        enPassantSquare = NO_SQUARE;
+    }
+
+    /**
+     * Copy the positioning of an immutable Board, incl. its castling rights, en passant Square and half move clock.
+     * @param board to copy.
+     * @return a new SearchBoard with equal positioning and Player to move.
+     */
+    public static SearchBoard fromBoard(final Board board) {
+        final SearchBoard searchBoard = new SearchBoard();
+
+        for (final Piece p : board.getAllPieces()) {
+            searchBoard.putPiece(BitBoard.getBoardIndex(p.getColor(), p.getType()), p.getSquarePos());
+        }
+
+        searchBoard.currColor = board.getCurrPlayer().getColor();
+        searchBoard.castlingRights = board.getCastlingRights();
+        searchBoard.halfMoveClock = board.getHalfMoveClock(); // so the 50 moves rule is seen from a Board root
+
+        final Piece enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn != null) { // Square behind the Pawn, as seen from its own moving direction
+            searchBoard.enPassantSquare = enPassantPawn.getSquarePos() - enPassantPawn.getColor().getMoveDir() * 8;
+        }
+
+        searchBoard.zobristKey ^= Zobrist.getSideKey(searchBoard.currColor) ^
+                                  Zobrist.getCastlingKey(searchBoard.castlingRights) ^
+                                  Zobrist.getEnPassantKey(enPassantPawn);
+
+        return searchBoard;
+    }
+
+    /**
+     * Set up a position in Forsyth-Edwards Notation, e.g. START_FEN. The Move counters may be left out; castling
+     * rights are only kept if King and Rook are on their initial Squares.
+     * @param fen piece placement (from the eighth row), color to move, castling rights, en passant Square, etc.
+     * @return a new SearchBoard with the position.
+     * @throws IllegalArgumentException if the FEN can't be read.
+     */
+    public static SearchBoard fromFen(final String fen) {
+        final FenParser parser = new FenParser();
+        parser.parse(fen);
+        return fromFen(parser);
+    }
+
+    /**
+     * @param parser holding the last position it read.
+     * @return a new SearchBoard with the position.
+     */
+    public static SearchBoard fromFen(final FenParser parser) {
+        final SearchBoard searchBoard = new SearchBoard();
+        searchBoard.setFen(parser);
+        return searchBoard;
+    }
+
+    /**
+     * Replace the position in place (e.g. for each position read by a FenReader), without allocating a new Board.
+     * The Moves made before are forgotten.
+     * @param parser holding the last position it read.
+     */
+    public void setFen(final FenParser parser) {
+        Arrays.fill(pieceBoards, EMPTY_MASK);
+        Arrays.fill(occupancy, EMPTY_MASK);
+        Arrays.fill(squares, NO_PIECE);
+        Arrays.fill(middlegameScores, 0);
+        Arrays.fill(endgameScores, 0);
+        phase = 0;
+        zobristKey = 0L;
+        pawnKey = 0L;
+        ply = 0;
+
+        for (int pos = 0; pos < SQUARES_ON_BOARD; pos++) {
+            if (parser.getBoardIndex(pos) != NO_PIECE) {
+                putPiece(parser.getBoardIndex(pos), pos);
+            }
+        }
+        currColor = parser.getNextToMove();
+        castlingRights = getCastlingRights(parser.getCastlingRights());
+        enPassantSquare = parser.getEnPassantSquare();
+        halfMoveClock = parser.getHalfMoveClock();
+
+        zobristKey ^= Zobrist.getSideKey(currColor) ^ Zobrist.getCastlingKey(castlingRights);
+        if (enPassantSquare != NO_SQUARE) {
+            zobristKey ^= Zobrist.getEnPassantKey(enPassantSquare);
+        }
+    }
+
+    /**
+     * @param rights castling rights as given (e.g. by a FEN).
+     * @return castling rights that King and Rook on their initial Squares allow.
+     */
+    private int getCastlingRights(final int rights) {
+        int allowed = 0;
+        if (canCastle(60, 63, PlayerColor.WHITE)) allowed |= Board.WHITE_SHORT_CASTLING;
+        if (canCastle(60, 56, PlayerColor.WHITE)) allowed |= Board.WHITE_LONG_CASTLING;
+        if (canCastle(4, 7, PlayerColor.BLACK)) allowed |= Board.BLACK_SHORT_CASTLING;
+        if (canCastle(4, 0, PlayerColor.BLACK)) allowed |= Board.BLACK_LONG_CASTLING;
+        return rights & allowed;
+    }
+
+    private boolean canCastle(final int kingPos, final int rookPos, final PlayerColor color) {
+        return squares[kingPos] == BitBoard.getBoardIndex(color, KING) &&
+               squares[rookPos] == BitBoard.getBoardIndex(color, ROOK);
+    }
+
+    /**
+     * Copy another SearchBoard, incl. the state of the Moves made on it (so the copy detects repetitions of positions
+     * before the copy was made).
+     * @return a new SearchBoard with equal positioning, Player to move and Move history.
+     */
+    public SearchBoard copy() {
+        final SearchBoard searchBoard = new SearchBoard();
+        System.arraycopy(pieceBoards, 0, searchBoard.pieceBoards, 0, pieceBoards.length);
+        System.arraycopy(occupancy, 0, searchBoard.occupancy, 0, occupancy.length);
+        System.arraycopy(squares, 0, searchBoard.squares, 0, squares.length);
+        searchBoard.currColor = currColor;
+        searchBoard.castlingRights = castlingRights;
+        searchBoard.enPassantSquare = enPassantSquare;
+        searchBoard.halfMoveClock = halfMoveClock;
+        searchBoard.ply = ply;
+        searchBoard.zobristKey = zobristKey;
+        searchBoard.pawnKey = pawnKey;
+        System.arraycopy(middlegameScores, 0, searchBoard.middlegameScores, 0, middlegameScores.length);
+        System.arraycopy(endgameScores, 0, searchBoard.endgameScores, 0, endgameScores.length);
+        searchBoard.phase = phase;
+
+        System.arraycopy(moveStack, 0, searchBoard.moveStack, 0, ply);
+        System.arraycopy(capturedStack, 0, searchBoard.capturedStack, 0, ply);
+        System.arraycopy(castlingStack, 0, searchBoard.castlingStack, 0, ply);
+        System.arraycopy(enPassantStack, 0, searchBoard.enPassantStack, 0, ply);
+        System.arraycopy(halfMoveStack, 0, searchBoard.halfMoveStack, 0, ply);
+        System.arraycopy(keyStack, 0, searchBoard.keyStack, 0, ply);
+        return searchBoard;
+    }
+
+    /**
+     * Forget all but the last Moves made, keeping the position, so a long game leaves room on the stacks (MAX_PLY)
+     * for the Moves of a search. Repetitions are still detected if the last capture or Pawn move is among the Moves
+     * kept; the forgotten Moves can't be unmade.
+     * @param plies number of last Moves to keep.
+     */
+    public void trimHistory(final int plies) {
+        final int dropped = ply - Math.max(0, Math.min(plies, ply));
+        if (dropped == 0) {
+            return;
+        }
+        ply -= dropped;
+        System.arraycopy(moveStack, dropped, moveStack, 0, ply);
+        System.arraycopy(capturedStack, dropped, capturedStack, 0, ply);
+        System.arraycopy(castlingStack, dropped, castlingStack, 0, ply);
+        System.arraycopy(enPassantStack, dropped, enPassantStack, 0, ply);
+        System.arraycopy(halfMoveStack, dropped, halfMoveStack, 0, ply);
+        System.arraycopy(keyStack, dropped, keyStack, 0, ply);
+    }
+
+    /**
+     * Get Squares, print each Piece (or "-" for empty Squares) for displaying Console graphics.
+     * @return formatted ASCII graphics of chess board, black Pieces in lower case characters.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (int pos = 0; pos < SQUARES_ON_BOARD; pos++) {
+            final int index = squares[pos];
+            String square = "-";
+            if (index != NO_PIECE) {
+                square = getPieceType(index).toString();
+                square = COLORS[getColorOrdinal(index)].isBlack() ? square.toLowerCase() : square.toUpperCase();
+            }
+            sb.append(String.format("%3s", square));
+            if ((pos + 1) % SQUARES_ON_ROW == 0) {
+                sb.append("\n"); // new line each 8th Square
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Perform a Move created on the immutable Board (e.g. from the GUI or the MoveLog).
+     * @param move to perform.
+     */
+    public void makeMove(final Move move) {
+        makeMove(PackedMove.fromMove(move));
+    }
+
+    /**
+     * Perform a packed Move in place. The Move must be pseudo-legal for the Player to move (e.g. generated by the
+     * MoveGenerator); no validation is done here.
+     * @param move packed Move to perform.
+     */
+    public void makeMove(final int move) {
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        final int moved = squares[from];
+        final int color = currColor.ordinal();
+        final int captureSquare = PackedMove.isEnPassant(move)
+                                  ? to - currColor.getMoveDir() * 8 // captured Pawn is "behind" destination Square
+                                  : to;
+        final int captured = squares[captureSquare];
+
+        // SAVE STATE
+        moveStack[ply] = move;
+        capturedStack[ply] = captured;
+        castlingStack[ply] = castlingRights;
+        enPassantStack[ply] = enPassantSquare;
+        halfMoveStack[ply] = halfMoveClock;
+        keyStack[ply] = zobristKey;
+
+        if (captured != NO_PIECE) {
+            removePiece(captured, captureSquare);
+        }
+
+        movePiece(moved, from, to);
+
+        // CASTLING (King moves two columns, Rook jumps over it)
+        if (PackedMove.isCastling(move)) {
+            movePiece(squares[getCastlingRookFrom(from, to)], getCastlingRookFrom(from, to), getCastlingRookTo(from, to));
+        }
+
+        // PROMOTION
+        if (PackedMove.isPromotion(move)) {
+            removePiece(moved, to);
+            putPiece(color * TYPES.length + PackedMove.getPromotionType(move).ordinal(), to);
+        }
+
+        if (enPassantSquare != NO_SQUARE) {
+            zobristKey ^= Zobrist.getEnPassantKey(enPassantSquare);
+        }
+        enPassantSquare = PackedMove.isDoubleMove(move) ? (from + to) / 2 : NO_SQUARE;
+        if (enPassantSquare != NO_SQUARE) {
+            zobristKey ^= Zobrist.getEnPassantKey(enPassantSquare);
+        }
+
+        zobristKey ^= Zobrist.getCastlingKey(castlingRights);
+        castlingRights = Board.getCastlingRightsAfterMove(castlingRights, from, to);
+        zobristKey ^= Zobrist.getCastlingKey(castlingRights) ^ Zobrist.getSideKey();
+        halfMoveClock = (getPieceType(moved) == PAWN || captured != NO_PIECE) ? 0 : halfMoveClock + 1;
+        currColor = COLORS[color ^ 1];
+        ply++;
+    }
+
+    /**
+     * Take back the last Move performed by makeMove(), restoring the saved state.
+     */
+    public void unmakeMove() {
+        ply--;
+        currColor = COLORS[currColor.ordinal() ^ 1];
+
+        final int move = moveStack[ply];
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+
+        if (PackedMove.isPromotion(move)) {
+            removePiece(squares[to], to);
+            putPiece(BitBoard.getBoardIndex(currColor, PAWN), to);
+        }
+
+        if (PackedMove.isCastling(move)) {
+            movePiece(squares[getCastlingRookTo(from, to)], getCastlingRookTo(from, to), getCastlingRookFrom(from, to));
+        }
+
+        movePiece(squares[to], to, from);
+
+        if (capturedStack[ply] != NO_PIECE) {
+            final int captureSquare = PackedMove.isEnPassant(move) ? to - currColor.getMoveDir() * 8 : to;
+            putPiece(capturedStack[ply], captureSquare);
+        }
+
+        castlingRights = castlingStack[ply];
+        enPassantSquare = enPassantStack[ply];
+        halfMoveClock = halfMoveStack[ply];
+        zobristKey = keyStack[ply];
+    }
+
+    /**
+     * Pass the turn to the opponent without moving ("null move"), e.g. to test if the position is good enough even
+     * then. Positions before a null move are not detected as repeated after it (the 50 moves count starts again).
+     */
+    public void makeNullMove() {
+        moveStack[ply] = PackedMove.NO_MOVE;
+        capturedStack[ply] = NO_PIECE;
+        castlingStack[ply] = castlingRights;
+        enPassantStack[ply] = enPassantSquare;
+        halfMoveStack[ply] = halfMoveClock;
+        keyStack[ply] = zobristKey;
+
+        if (enPassantSquare != NO_SQUARE) {
+            zobristKey ^= Zobrist.getEnPassantKey(enPassantSquare);
+            enPassantSquare = NO_SQUARE;
+        }
+        zobristKey ^= Zobrist.getSideKey();
+        halfMoveClock = 0;
+        currColor = currColor.getOppColor();
+        ply++;
+    }
+
+    /**
+     * Take back the null move performed by makeNullMove().
+     */
+    public void unmakeNullMove() {
+        ply--;
+        currColor = currColor.getOppColor();
+        enPassantSquare = enPassantStack[ply];
+        halfMoveClock = halfMoveStack[ply];
+        zobristKey = keyStack[ply];
+    }
+
+    private static int getCastlingRookFrom(final int kingFrom, final int kingTo) {
+        return (kingTo > kingFrom) ? kingTo + 1 : kingTo - 2; // kingside or queenside corner
+    }
+
+    private static int getCastlingRookTo(final int kingFrom, final int kingTo) {
+        return (kingTo > kingFrom) ? kingTo - 1 : kingTo + 1; // Square that King passed over
+    }
+
+    private void putPiece(final int index, final int squarePos) {
+        final long squareMask = getSquareMask(squarePos);
+        pieceBoards[index] |= squareMask;
+        occupancy[getColorOrdinal(index)] |= squareMask;
+        squares[squarePos] = index;
+        zobristKey ^= Zobrist.getPieceKey(index, squarePos);
+        if (isPawn(index)) {
+            pawnKey ^= Zobrist.getPieceKey(index, squarePos);
+        }
+        final int color = getColorOrdinal(index);
+        middlegameScores[color] += PieceSquareTables.getMiddlegameScore(index, squarePos);
+        endgameScores[color] += PieceSquareTables.getEndgameScore(index, squarePos);
+        phase += PieceSquareTables.getPhaseWeight(index);
+    }
+
+    private void removePiece(final int index, final int squarePos) {
+        final long squareMask = getSquareMask(squarePos);
+        pieceBoards[index] &= ~squareMask;
+        occupancy[getColorOrdinal(index)] &= ~squareMask;
+        squares[squarePos] = NO_PIECE;
+        zobristKey ^= Zobrist.getPieceKey(index, squarePos);
+        if (isPawn(index)) {
+            pawnKey ^= Zobrist.getPieceKey(index, squarePos);
+        }
+        final int color = getColorOrdinal(index);
+        middlegameScores[color] -= PieceSquareTables.getMiddlegameScore(index, squarePos);
+        endgameScores[color] -= PieceSquareTables.getEndgameScore(index, squarePos);
+        phase -= PieceSquareTables.getPhaseWeight(index);
+    }
+
+    private void movePiece(final int index, final int from, final int to) {
+        final long moveMask = getSquareMask(from) | getSquareMask(to);
+        pieceBoards[index] ^= moveMask;
+        occupancy[getColorOrdinal(index)] ^= moveMask;
+        squares[from] = NO_PIECE;
+        squares[to] = index;
+        zobristKey ^= Zobrist.getPieceKey(index, from) ^ Zobrist.getPieceKey(index, to);
+        if (isPawn(index)) {
+            pawnKey ^= Zobrist.getPieceKey(index, from) ^ Zobrist.getPieceKey(index, to);
+        }
+        final int color = getColorOrdinal(index);
+        middlegameScores[color] += PieceSquareTables.getMiddlegameScore(index, to) -
+                                   PieceSquareTables.getMiddlegameScore(index, from);
+        endgameScores[color] += PieceSquareTables.getEndgameScore(index, to) -
+                                PieceSquareTables.getEndgameScore(index, from);
+    }
+
+    /**
+     * @param squarePos of Square to check (e.g. a King's position).
+     * @param byColor color of attacking Pieces.
+     * @return true (if any Piece of the given color attacks the Square).
+     */
+    public boolean isSquareAttacked(final int squarePos, final PlayerColor byColor) {
+        return AttackTables.isSquareAttacked(squarePos, byColor.ordinal(), pieceBoards, getAllOccupancy(), EMPTY_MASK);
+    }
+
+    /**
+     * @param squarePos of Square to check.
+     * @param occupancy mask of occupied Squares (e.g. without Pieces that already captured on the Square).
+     * @return mask of the Pieces of both colors on occupancy attacking the Square.
+     */
+    public long getAttackers(final int squarePos, final long occupancy) {
+        return AttackTables.getAttackers(squarePos, pieceBoards, occupancy);
+    }
+
+    /**
+     * @param color of King to check.
+     * @return true (if the King of given color is attacked by the opponent).
+     */
+    public boolean isKingAttacked(final PlayerColor color) {
+        final int kingPos = getFirstSquare(pieceBoards[BitBoard.getBoardIndex(color, KING)]);
+        return isSquareAttacked(kingPos, color.getOppColor());
+    }
+
+    /**
+     * @param color of Player.
+     * @return true (if the Player has a Knight, Bishop, Rook or Queen; without them, zugzwang is likely).
+     */
+    public boolean hasNonPawnMaterial(final PlayerColor color) {
+        return (occupancy[color.ordinal()] & ~getPieces(color, PAWN) & ~getPieces(color, KING)) != EMPTY_MASK;
+    }
+
+    /**
+     * Only positions since the last capture or Pawn move can repeat, and only every second ply (same Player to move).
+     * Positions before this Board was created from a Board are not known.
+     * @return true (if the current position occurred before on this Board).
+     */
+    public boolean isRepetition() {
+        final int first = Math.max(0, ply - halfMoveClock);
+        for (int i = ply - 2; i >= first; i -= 2) {
+            if (keyStack[i] == zobristKey) { // key of position before the Move at ply i
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param index of a color/PieceType mask (0-11).
+     * @return PieceType of the mask.
+     */
+    public static PieceType getPieceType(final int index) {
+        return TYPES[index % TYPES.length];
+    }
+
+    /**
+     * @param index of a color/PieceType mask (0-11).
+     * @return ordinal of the PlayerColor of the mask.
+     */
+    public static int getColorOrdinal(final int index) {
+        return index / TYPES.length;
+    }
+
+    private static boolean isPawn(final int index) {
+        return index % TYPES.length == PAWN.ordinal();
+    }
+
+    public long getPieces(final PlayerColor color, final PieceType type) {
+        return pieceBoards[BitBoard.getBoardIndex(color, type)];
+    }
+
+    public long getPieces(final int boardIndex) {return pieceBoards[boardIndex];}
+    public long getOccupancy(final PlayerColor color) {return occupancy[color.ordinal()];}
+    public long getAllOccupancy() {return occupancy[0] | occupancy[1];}
+    public int getBoardIndex(final int squarePos) {return squares[squarePos];}
+    public PlayerColor getCurrColor() {return currColor;}
+    public int getCastlingRights() {return castlingRights;}
+    public int getEnPassantSquare() {return enPassantSquare;}
+    public int getHalfMoveClock() {return halfMoveClock;}
+    public int getPly() {return ply;}
+    public int getLastMove() {return (ply > 0) ? moveStack[ply - 1] : PackedMove.NO_MOVE;} // packed Move
+    public long getZobristKey() {return zobristKey;}
+    public long getPawnKey() {return pawnKey;}
+    public int getMiddlegameScore(final PlayerColor color) {return middlegameScores[color.ordinal()];}
+    public int getEndgameScore(final PlayerColor color) {return endgameScores[color.ordinal()];}
+    public int getPhase() {return phase;}
+
+}
@@ -0,0 +1,104 @@
+package engine.board;
+
+import engine.pieces.Piece;
+import engine.pieces.Piece.PieceType;
+import engine.players.PlayerColor;
+
+import java.util.Random;
+
+import static engine.board.BitBoard.PIECE_BOARDS;
+import static engine.board.BoardUtilities.SQUARES_ON_BOARD;
+import static engine.board.BoardUtilities.SQUARES_ON_ROW;
+
+/**
+ * Random 64-bit keys for Zobrist hashing of positions (ref. https://www.chessprogramming.org/Zobrist_Hashing).
+ * A position's key is the XOR of the keys of every Piece on its Square, the side to move, the castling rights
+ * and the column of the en passant Pawn. Since XOR is its own inverse, a Move updates the key incrementally by
+ * XOR-ing "out" the old and "in" the new features, instead of hashing the whole Board again.
+ */
+public enum Zobrist {
+
+    INSTANCE;
+
+    private static final long SEED = 0x4A4368617475726EL; // fixed seed, so keys are equal on every run
+    private static final long[][] PIECE_KEYS = new long[PIECE_BOARDS][SQUARES_ON_BOARD];
+    private static final long[] CASTLING_KEYS = new long[16]; // one per combination of the four castling rights
+    private static final long[] EN_PASSANT_KEYS = new long[SQUARES_ON_ROW]; // one per column
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        final Random random = new Random(SEED);
+        for (final long[] squareKeys : PIECE_KEYS) {
+            for (int pos = 0; pos < SQUARES_ON_BOARD; pos++) {
+                squareKeys[pos] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    /**
+     * Hash a position from scratch; only needed when a Board isn't created by a Move (e.g. the initial Board).
+     * @param pieces on Board.
+     * @param nextToMove color of Player to move.
+     * @param castlingRights flags as defined in Board.
+     * @param enPassantPawn Pawn that could be captured "en passant" (null if none).
+     * @return Zobrist key of position.
+     */
+    public static long createKey(final Iterable<Piece> pieces, final PlayerColor nextToMove,
+                                 final int castlingRights, final Piece enPassantPawn) {
+        long key = 0L;
+        for (final Piece p : pieces) {
+            key ^= getPieceKey(p);
+        }
+        key ^= getSideKey(nextToMove);
+        key ^= getCastlingKey(castlingRights);
+        key ^= getEnPassantKey(enPassantPawn);
+        return key;
+    }
+
+    public static long getPieceKey(final int boardIndex, final int squarePos) {
+        return PIECE_KEYS[boardIndex][squarePos];
+    }
+
+    public static long getPieceKey(final PlayerColor color, final PieceType type, final int squarePos) {
+        return PIECE_KEYS[BitBoard.getBoardIndex(color, type)][squarePos];
+    }
+
+    public static long getPieceKey(final Piece piece) {
+        return getPieceKey(piece.getColor(), piece.getType(), piece.getSquarePos());
+    }
+
+    /**
+     * @return key toggled every time the side to move changes (i.e. on every Move).
+     */
+    public static long getSideKey() {
+        return BLACK_TO_MOVE_KEY;
+    }
+
+    public static long getSideKey(final PlayerColor nextToMove) {
+        return nextToMove.isBlack() ? BLACK_TO_MOVE_KEY : 0L;
+    }
+
+    public static long getCastlingKey(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * @param squarePos of en passant Pawn, or of the Square it jumped over (only the column counts).
+     * @return key of en passant column.
+     */
+    public static long getEnPassantKey(final int squarePos) {
+        return EN_PASSANT_KEYS[squarePos % SQUARES_ON_ROW];
+    }
+
+    public static long getEnPassantKey(final Piece enPassantPawn) {
+        return (enPassantPawn != null) ? getEnPassantKey(enPassantPawn.getSquarePos()) : 0L;
+    }
+
+}
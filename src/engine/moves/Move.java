@@ -1,13 +1,17 @@
 package engine.moves;
 
+import engine.board.BitBoard;
 import engine.board.Board;
 import engine.board.Board.BoardBuilder;
 import engine.board.BoardUtilities;
+import engine.board.Zobrist;
 import engine.pieces.Pawn;
 import engine.pieces.Piece;
+import engine.pieces.Piece.PieceType;
 import engine.pieces.Rook;
 import engine.players.Player;
 
+import static engine.pieces.Piece.PieceType.PAWN;
 import static engine.pieces.Piece.PieceType.QUEEN;
 
 public abstract class Move {
@@ -108,13 +112,12 @@ public abstract class Move {
         }
 
         // RETURNED BOARD'S NEW PIECE POSITIONS
-        builder.setPiece(movedPiece.performMove(this));
+        final Piece newPiece = movedPiece.performMove(this);
+        builder.setPiece(newPiece);
         builder.setNextToMove(oppPlayer.getColor());
         builder.setMoveTransaction(this);
-
-        // TODO: add move to move log for undo / redo / reset
-        MoveLog.getInstance().addMove(this);
-        System.out.println("Move log: " + MoveLog.getMoveList().toString());
+        builder.setZobristKey(getNewZobristKey(newPiece, null));
+        setMoveCounters(builder);
 
         return builder.createBoard();
     }
@@ -124,18 +127,76 @@ public abstract class Move {
         for (final Piece p : board.getAllPieces()) {
             builder.setPiece(p);
         }
+        builder.setEnPassantPawn(board.getEnPassantPawn());
         builder.setNextToMove(board.getCurrPlayer().getColor());
+        builder.setMoveCounters(board.getHalfMoveClock(), board.getFullMoveNumber());
         return builder.createBoard();
     }
 
+    /**
+     * A capture or Pawn Move resets the half move clock; a black Move completes a full Move.
+     * @param builder of the Board created by this Move.
+     */
+    protected void setMoveCounters(final BoardBuilder builder) {
+        final boolean irreversible = movedPiece.getType() == PAWN || isCaptureMove();
+        builder.setMoveCounters(irreversible ? 0 : board.getHalfMoveClock() + 1,
+                                board.getFullMoveNumber() + (movedPiece.getColor().isWhite() ? 0 : 1));
+    }
+
+    /**
+     * Update the previous Board's Zobrist key by XOR-ing out the moved (and captured) Piece, the old castling rights
+     * and en passant column, and XOR-ing in the moved Piece at its destination and the new state.
+     * This replaces hashing the new Board from scratch.
+     * @param newPiece moved Piece at its destination (e.g. a Queen after promotion).
+     * @param newEnPassantPawn Pawn that can be captured "en passant" on the new Board (null if none).
+     * @return Zobrist key of the Board created by this Move.
+     */
+    protected long getNewZobristKey(final Piece newPiece, final Pawn newEnPassantPawn) {
+        final int castlingRights = board.getCastlingRights();
+        long key = board.getZobristKey();
+
+        key ^= Zobrist.getPieceKey(movedPiece) ^ Zobrist.getPieceKey(newPiece);
+        if (isCaptureMove()) {
+            key ^= Zobrist.getPieceKey(getCaptPiece()); // captured Piece's own position (differs for en passant)
+        }
+
+        key ^= Zobrist.getCastlingKey(castlingRights) ^
+               Zobrist.getCastlingKey(Board.getCastlingRightsAfterMove(castlingRights, getCurrPos(), destPos));
+        key ^= Zobrist.getEnPassantKey(board.getEnPassantPawn()) ^ Zobrist.getEnPassantKey(newEnPassantPawn);
+        key ^= Zobrist.getSideKey();
+
+        return key;
+    }
+
+    /**
+     * The other Pieces of the moved type and color attacking the destination are looked up on the BitBoard (from the
+     * destination Square "backwards"), so toString() doesn't iterate the Player's legal Moves. Only those that can
+     * legally move there are told apart (looked up by their Squares, and not pinned to the King).
+     * @return column and/or row of the moved Piece that tell it from the others (see SanNotation), or "" if none.
+     */
     public String getPGNFromMap() {
-        for (final Move move : board.getCurrPlayer().getLegalMoves()) {
-            if(move.getDestPos() == destPos && !equals(move) &&
-                    movedPiece.getType().equals(move.getMovedPiece().getType())) {
-                return BoardUtilities.INSTANCE.getPGNFromPos(movedPiece.getSquarePos()).substring(0, 1);
+        final BitBoard bitBoard = board.getBitBoard();
+        final PieceType type = movedPiece.getType();
+        final int currPos = movedPiece.getSquarePos();
+        long others = MoveGenerator.getPieceAttacks(type, destPos, bitBoard.getAllOccupancy()) &
+                      bitBoard.getPieces(movedPiece.getColor(), type) & ~BitBoard.getSquareMask(currPos);
+
+        final Player player = board.getCurrPlayer();
+        long candidates = others;
+        while (candidates != BitBoard.EMPTY_MASK) {
+            final int other = BitBoard.getFirstSquare(candidates);
+            candidates &= candidates - 1;
+            final Move rival = player.getLegalMove(other, destPos);
+            if (rival == ILLEGAL_MOVE || player.isLeavingKingAttacked(rival)) {
+                others &= ~BitBoard.getSquareMask(other);
             }
         }
-        return "";
+        if (others == BitBoard.EMPTY_MASK) {
+            return "";
+        }
+        final StringBuilder disambiguation = new StringBuilder(2);
+        SanNotation.appendDisambiguation(disambiguation, currPos, others);
+        return disambiguation.toString();
     }
 
     public static class MoveFactory {
@@ -144,16 +205,14 @@ public abstract class Move {
             throw new RuntimeException("The MoveFactory class is not instantiable!");
         }
 
+        /**
+         * @param board that Move is performed on.
+         * @param currPos squarePos of Piece to move.
+         * @param destPos destination squarePos of Piece.
+         * @return legal Move of the current Player between given Squares, or ILLEGAL_MOVE if none.
+         */
         public static Move createMove(final Board board, final int currPos, final int destPos) {
-
-            for (final Move m : board.getAllLegalMoves()) {
-                if (m.getCurrPos() == currPos &&
-                    m.getDestPos() == destPos) {
-                    return m;
-                }
-            }
-
-            return ILLEGAL_MOVE;
+            return board.getCurrPlayer().getLegalMove(currPos, destPos);
         }
 
     }
@@ -286,10 +345,15 @@ public abstract class Move {
                 }
             }
 
-            builder.setPiece(this.movedPiece.performMove(this));
-            builder.setPiece(new Rook(this.destPosRook, this.castlingRook.getColor(),false));
+            final Piece newKing = this.movedPiece.performMove(this);
+            final Rook newRook = new Rook(this.destPosRook, this.castlingRook.getColor(),false);
+            builder.setPiece(newKing);
+            builder.setPiece(newRook);
             builder.setNextToMove(this.board.getCurrPlayer().getOpponent().getColor());
             builder.setMoveTransaction(this);
+            builder.setZobristKey(getNewZobristKey(newKing, null) ^
+                                  Zobrist.getPieceKey(this.castlingRook) ^ Zobrist.getPieceKey(newRook));
+            setMoveCounters(builder);
 
             return builder.createBoard();
         }
@@ -427,6 +491,8 @@ public abstract class Move {
             builder.setEnPassantPawn(movedPawn);
             builder.setNextToMove(this.board.getCurrPlayer().getOpponent().getColor());
             builder.setMoveTransaction(this);
+            builder.setZobristKey(getNewZobristKey(movedPawn, movedPawn));
+            setMoveCounters(builder);
 
             return builder.createBoard();
         }
@@ -484,9 +550,12 @@ public abstract class Move {
                 }
             }
 
-            builder.setPiece(this.movedPiece.performMove(this));
+            final Piece newPawn = this.movedPiece.performMove(this);
+            builder.setPiece(newPawn);
             builder.setNextToMove(this.board.getCurrPlayer().getOpponent().getColor());
             builder.setMoveTransaction(this);
+            builder.setZobristKey(getNewZobristKey(newPawn, null));
+            setMoveCounters(builder);
 
             return builder.createBoard();
         }
@@ -501,6 +570,7 @@ public abstract class Move {
 
             builder.setEnPassantPawn((Pawn)this.getCaptPiece());
             builder.setNextToMove(this.board.getCurrPlayer().getColor());
+            builder.setMoveCounters(this.board.getHalfMoveClock(), this.board.getFullMoveNumber());
 
             return builder.createBoard();
         }
@@ -542,9 +612,13 @@ public abstract class Move {
                 builder.setPiece(piece);
             }
 
-            builder.setPiece(pawn.getPromotionQueen().performMove(this));
+            final Piece queen = pawn.getPromotionQueen().performMove(this);
+            builder.setPiece(queen);
             builder.setNextToMove(board.getCurrPlayer().getColor());
             builder.setMoveTransaction(this);
+            builder.setZobristKey(board.getZobristKey() ^ // replace Pawn at destination with the new Queen
+                                  Zobrist.getPieceKey(pawn.getColor(), PAWN, destPos) ^ Zobrist.getPieceKey(queen));
+            builder.setMoveCounters(board.getHalfMoveClock(), board.getFullMoveNumber()); // set by the Pawn Move
 
             return builder.createBoard();
         }
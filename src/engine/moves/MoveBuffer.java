@@ -0,0 +1,32 @@
+package engine.moves;
+
+/**
+ * Reusable lists of packed Moves, one int array per ply (i.e. depth in the game tree).
+ * Searching code generates into the list of the current ply, so no Move lists are allocated while searching.
+ * Each Move has an int score alongside, used by searching code to order the Moves.
+ */
+public final class MoveBuffer {
+
+    public static final int MAX_MOVES = 256; // more than the legal Moves of any chess position (max. 218)
+
+    private final int[][] moves;
+    private final int[][] scores;
+    private final int[] sizes;
+
+    public MoveBuffer(final int maxPly) {
+        moves = new int[maxPly][MAX_MOVES];
+        scores = new int[maxPly][MAX_MOVES];
+        sizes = new int[maxPly];
+    }
+
+    public void clear(final int ply) {sizes[ply] = 0;}
+    public void add(final int ply, final int move) {moves[ply][sizes[ply]++] = move;}
+    public int get(final int ply, final int index) {return moves[ply][index];}
+    public void set(final int ply, final int index, final int move) {moves[ply][index] = move;}
+    public int size(final int ply) {return sizes[ply];}
+    public void setSize(final int ply, final int size) {sizes[ply] = size;}
+    public int[] getMoves(final int ply) {return moves[ply];}
+    public int[] getScores(final int ply) {return scores[ply];}
+    public int getMaxPly() {return moves.length;}
+
+}
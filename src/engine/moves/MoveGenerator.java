@@ -0,0 +1,256 @@
+package engine.moves;
+
+import engine.board.AttackTables;
+import engine.board.SearchBoard;
+import engine.pieces.Piece.PieceType;
+import engine.players.PlayerColor;
+
+import static engine.board.Board.*;
+import static engine.board.BitBoard.*;
+import static engine.board.SearchBoard.NO_PIECE;
+import static engine.board.SearchBoard.NO_SQUARE;
+import static engine.moves.PackedMove.*;
+import static engine.pieces.Piece.PieceType.*;
+
+/**
+ * Generates packed Moves for a SearchBoard into a MoveBuffer, using the attack tables (no Move objects).
+ * Pseudo-legal Moves may leave the own King attacked; legal Moves are filtered by performing each Move.
+ */
+public enum MoveGenerator {
+
+    INSTANCE;
+
+    private static final PieceType[] PROMOTION_TYPES = {QUEEN, ROOK, BISHOP, KNIGHT};
+    private static final long WHITE_SHORT_EMPTY = getSquareMask(61) | getSquareMask(62);
+    private static final long WHITE_LONG_EMPTY = getSquareMask(57) | getSquareMask(58) | getSquareMask(59);
+    private static final long BLACK_SHORT_EMPTY = getSquareMask(5) | getSquareMask(6);
+    private static final long BLACK_LONG_EMPTY = getSquareMask(1) | getSquareMask(2) | getSquareMask(3);
+
+    /**
+     * Generate all legal Moves of the Player to move into the buffer's list for given ply.
+     * @param board to generate Moves for.
+     * @param buffer to generate Moves into.
+     * @param ply index of list in buffer (cleared first).
+     * @return number of legal Moves.
+     */
+    public static int generateLegalMoves(final SearchBoard board, final MoveBuffer buffer, final int ply) {
+        generateMoves(board, buffer, ply);
+
+        final PlayerColor color = board.getCurrColor();
+        final int[] moves = buffer.getMoves(ply);
+        int legal = 0;
+        for (int i = 0; i < buffer.size(ply); i++) {
+            board.makeMove(moves[i]);
+            if (!board.isKingAttacked(color)) {
+                moves[legal++] = moves[i]; // keep legal Moves at the front of the list
+            }
+            board.unmakeMove();
+        }
+        buffer.setSize(ply, legal);
+        return legal;
+    }
+
+    /**
+     * Generate all pseudo-legal Moves of the Player to move into the buffer's list for given ply.
+     * @param board to generate Moves for.
+     * @param buffer to generate Moves into.
+     * @param ply index of list in buffer (cleared first).
+     */
+    public static void generateMoves(final SearchBoard board, final MoveBuffer buffer, final int ply) {
+        buffer.clear(ply);
+
+        final PlayerColor color = board.getCurrColor();
+        final long own = board.getOccupancy(color);
+        final long targets = ~own;
+
+        generatePawnMoves(board, buffer, ply, color);
+        generatePieceMoves(board, buffer, ply, color, KNIGHT, targets);
+        generatePieceMoves(board, buffer, ply, color, BISHOP, targets);
+        generatePieceMoves(board, buffer, ply, color, ROOK, targets);
+        generatePieceMoves(board, buffer, ply, color, QUEEN, targets);
+        generatePieceMoves(board, buffer, ply, color, KING, targets);
+        generateCastlingMoves(board, buffer, ply, color);
+    }
+
+    /**
+     * Generate the pseudo-legal captures (incl. en passant) and Queen promotions of the Player to move, e.g. for a
+     * quiescence search.
+     * @param board to generate Moves for.
+     * @param buffer to generate Moves into.
+     * @param ply index of list in buffer (cleared first).
+     */
+    public static void generateCaptures(final SearchBoard board, final MoveBuffer buffer, final int ply) {
+        buffer.clear(ply);
+
+        final PlayerColor color = board.getCurrColor();
+        final long enemies = board.getOccupancy(color.getOppColor());
+
+        generatePawnCaptures(board, buffer, ply, color);
+        generatePieceMoves(board, buffer, ply, color, KNIGHT, enemies);
+        generatePieceMoves(board, buffer, ply, color, BISHOP, enemies);
+        generatePieceMoves(board, buffer, ply, color, ROOK, enemies);
+        generatePieceMoves(board, buffer, ply, color, QUEEN, enemies);
+        generatePieceMoves(board, buffer, ply, color, KING, enemies);
+    }
+
+    /**
+     * @param type of Piece.
+     * @param squarePos of Piece.
+     * @param occupancy mask of all occupied Squares.
+     * @return mask of Squares attacked by a Piece of given type (not Pawns).
+     */
+    public static long getPieceAttacks(final PieceType type, final int squarePos, final long occupancy) {
+        switch (type) {
+            case KNIGHT: return AttackTables.getKnightAttacks(squarePos);
+            case BISHOP: return AttackTables.getBishopAttacks(squarePos, occupancy);
+            case ROOK: return AttackTables.getRookAttacks(squarePos, occupancy);
+            case QUEEN: return AttackTables.getQueenAttacks(squarePos, occupancy);
+            case KING: return AttackTables.getKingAttacks(squarePos);
+            default: return EMPTY_MASK;
+        }
+    }
+
+    private static void generatePieceMoves(final SearchBoard board, final MoveBuffer buffer, final int ply,
+                                           final PlayerColor color, final PieceType type, final long targets) {
+        final long occupancy = board.getAllOccupancy();
+        long pieces = board.getPieces(color, type);
+
+        while (pieces != EMPTY_MASK) {
+            final int from = getFirstSquare(pieces);
+            pieces &= pieces - 1;
+
+            long destinations = getPieceAttacks(type, from, occupancy) & targets;
+            while (destinations != EMPTY_MASK) {
+                final int to = getFirstSquare(destinations);
+                destinations &= destinations - 1;
+                buffer.add(ply, create(from, to, type, getCapturedType(board, to), null, 0));
+            }
+        }
+    }
+
+    private static void generatePawnMoves(final SearchBoard board, final MoveBuffer buffer, final int ply,
+                                          final PlayerColor color) {
+        final long empty = ~board.getAllOccupancy();
+        final long enemies = board.getOccupancy(color.getOppColor());
+        final int enPassantSquare = board.getEnPassantSquare();
+        final long enPassantMask = (enPassantSquare != NO_SQUARE) ? getSquareMask(enPassantSquare) : EMPTY_MASK;
+        final int dir = color.getMoveDir() * 8; // one row "forwards"
+        long pawns = board.getPieces(color, PAWN);
+
+        while (pawns != EMPTY_MASK) {
+            final int from = getFirstSquare(pawns);
+            pawns &= pawns - 1;
+
+            // SINGLE & DOUBLE MOVE
+            final int to = from + dir;
+            if ((empty & getSquareMask(to)) != 0) {
+                addPawnMoves(buffer, ply, color, from, to, null);
+
+                final int jumpTo = to + dir;
+                if (isPawnStartSquare(from, color) && (empty & getSquareMask(jumpTo)) != 0) {
+                    buffer.add(ply, create(from, jumpTo, PAWN, null, null, DOUBLE_MOVE_FLAG));
+                }
+            }
+
+            // CAPTURES & EN PASSANT
+            final long attacks = AttackTables.getPawnAttacks(from, color.ordinal());
+            long captures = attacks & enemies;
+            while (captures != EMPTY_MASK) {
+                final int captPos = getFirstSquare(captures);
+                captures &= captures - 1;
+                addPawnMoves(buffer, ply, color, from, captPos, getCapturedType(board, captPos));
+            }
+            if ((attacks & enPassantMask) != 0) {
+                buffer.add(ply, create(from, enPassantSquare, PAWN, PAWN, null, EN_PASSANT_FLAG));
+            }
+        }
+    }
+
+    private static void generatePawnCaptures(final SearchBoard board, final MoveBuffer buffer, final int ply,
+                                             final PlayerColor color) {
+        final long empty = ~board.getAllOccupancy();
+        final long enemies = board.getOccupancy(color.getOppColor());
+        final int enPassantSquare = board.getEnPassantSquare();
+        final long enPassantMask = (enPassantSquare != NO_SQUARE) ? getSquareMask(enPassantSquare) : EMPTY_MASK;
+        final int dir = color.getMoveDir() * 8;
+        long pawns = board.getPieces(color, PAWN);
+
+        while (pawns != EMPTY_MASK) {
+            final int from = getFirstSquare(pawns);
+            pawns &= pawns - 1;
+
+            final int to = from + dir;
+            if (color.hasReachedPromotion(to) && (empty & getSquareMask(to)) != 0) {
+                buffer.add(ply, create(from, to, PAWN, null, QUEEN, 0));
+            }
+
+            final long attacks = AttackTables.getPawnAttacks(from, color.ordinal());
+            long captures = attacks & enemies;
+            while (captures != EMPTY_MASK) {
+                final int captPos = getFirstSquare(captures);
+                captures &= captures - 1;
+                final PieceType promotion = color.hasReachedPromotion(captPos) ? QUEEN : null;
+                buffer.add(ply, create(from, captPos, PAWN, getCapturedType(board, captPos), promotion, 0));
+            }
+            if ((attacks & enPassantMask) != 0) {
+                buffer.add(ply, create(from, enPassantSquare, PAWN, PAWN, null, EN_PASSANT_FLAG));
+            }
+        }
+    }
+
+    private static void addPawnMoves(final MoveBuffer buffer, final int ply, final PlayerColor color,
+                                     final int from, final int to, final PieceType captured) {
+        if (color.hasReachedPromotion(to)) {
+            for (final PieceType promotion : PROMOTION_TYPES) {
+                buffer.add(ply, create(from, to, PAWN, captured, promotion, 0));
+            }
+        } else {
+            buffer.add(ply, create(from, to, PAWN, captured, null, 0));
+        }
+    }
+
+    static boolean isPawnStartSquare(final int squarePos, final PlayerColor color) {
+        return color.isWhite() ? (squarePos >= 48 && squarePos < 56) : (squarePos >= 8 && squarePos < 16);
+    }
+
+    /**
+     * Castling requires the rights, empty Squares between King and Rook, and that the King neither is in check,
+     * nor passes or lands on an attacked Square.
+     */
+    static void generateCastlingMoves(final SearchBoard board, final MoveBuffer buffer, final int ply,
+                                      final PlayerColor color) {
+        final int rights = board.getCastlingRights();
+        final long occupancy = board.getAllOccupancy();
+        final PlayerColor opp = color.getOppColor();
+
+        if (color.isWhite()) {
+            if ((rights & WHITE_SHORT_CASTLING) != 0 && (occupancy & WHITE_SHORT_EMPTY) == 0 &&
+                !board.isSquareAttacked(60, opp) && !board.isSquareAttacked(61, opp) &&
+                !board.isSquareAttacked(62, opp)) {
+                buffer.add(ply, create(60, 62, KING, null, null, CASTLING_FLAG));
+            }
+            if ((rights & WHITE_LONG_CASTLING) != 0 && (occupancy & WHITE_LONG_EMPTY) == 0 &&
+                !board.isSquareAttacked(60, opp) && !board.isSquareAttacked(59, opp) &&
+                !board.isSquareAttacked(58, opp)) {
+                buffer.add(ply, create(60, 58, KING, null, null, CASTLING_FLAG));
+            }
+        } else {
+            if ((rights & BLACK_SHORT_CASTLING) != 0 && (occupancy & BLACK_SHORT_EMPTY) == 0 &&
+                !board.isSquareAttacked(4, opp) && !board.isSquareAttacked(5, opp) &&
+                !board.isSquareAttacked(6, opp)) {
+                buffer.add(ply, create(4, 6, KING, null, null, CASTLING_FLAG));
+            }
+            if ((rights & BLACK_LONG_CASTLING) != 0 && (occupancy & BLACK_LONG_EMPTY) == 0 &&
+                !board.isSquareAttacked(4, opp) && !board.isSquareAttacked(3, opp) &&
+                !board.isSquareAttacked(2, opp)) {
+                buffer.add(ply, create(4, 2, KING, null, null, CASTLING_FLAG));
+            }
+        }
+    }
+
+    private static PieceType getCapturedType(final SearchBoard board, final int squarePos) {
+        final int index = board.getBoardIndex(squarePos);
+        return (index != NO_PIECE) ? SearchBoard.getPieceType(index) : null;
+    }
+
+}
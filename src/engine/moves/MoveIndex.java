@@ -0,0 +1,80 @@
+package engine.moves;
+
+import java.util.Collection;
+
+import static engine.board.BoardUtilities.SQUARES_ON_BOARD;
+import static engine.board.BoardUtilities.isSquareOnBoard;
+
+/**
+ * Legal Moves of a Player, indexed by their "from" and "to" Squares for constant time lookup.
+ * Pawns on the Board only promote to Queens, so no two legal Moves share both Squares, and the promotion Piece
+ * needs no part in the key.
+ * The table is an open addressing hash (linear probing) kept below half full, so it stays a few dozen slots large
+ * instead of the 64 x 64 slots of a flat table.
+ */
+public final class MoveIndex {
+
+    private static final int HASH_MULTIPLIER = 0x9E3779B9; // golden ratio, spreads keys over the upper bits
+
+    private final short[] keys; // from * 64 + to + 1, 0 marks an empty slot
+    private final Move[] moves;
+    private final int mask;
+    private final int shift;
+
+    public MoveIndex(final Collection<Move> legalMoves) {
+        final int capacity = Integer.highestOneBit(Math.max(legalMoves.size(), 1)) * 4; // less than half full
+        keys = new short[capacity];
+        moves = new Move[capacity];
+        mask = capacity - 1;
+        shift = Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+
+        for (final Move move : legalMoves) {
+            final short key = getKey(move.getCurrPos(), move.getDestPos());
+            int slot = getSlot(key);
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) { // first Move with these Squares wins, as when scanning the list
+                keys[slot] = key;
+                moves[slot] = move;
+            }
+        }
+    }
+
+    /**
+     * @param currPos squarePos of moved Piece.
+     * @param destPos destination squarePos of moved Piece.
+     * @return the legal Move between given Squares, or Move.ILLEGAL_MOVE if none.
+     */
+    public Move get(final int currPos, final int destPos) {
+        if (!isSquareOnBoard(currPos) || !isSquareOnBoard(destPos)) {
+            return Move.ILLEGAL_MOVE;
+        }
+
+        final short key = getKey(currPos, destPos);
+        for (int slot = getSlot(key); keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return moves[slot];
+            }
+        }
+        return Move.ILLEGAL_MOVE;
+    }
+
+    /**
+     * @param move to look for.
+     * @return true (if an equal Move is indexed); only the Move found by its Squares is compared.
+     */
+    public boolean contains(final Move move) {
+        final Move indexed = get(move.getCurrPos(), move.getDestPos());
+        return indexed != Move.ILLEGAL_MOVE && indexed.equals(move);
+    }
+
+    private static short getKey(final int currPos, final int destPos) {
+        return (short) (currPos * SQUARES_ON_BOARD + destPos + 1);
+    }
+
+    private int getSlot(final short key) {
+        return (key * HASH_MULTIPLIER) >>> shift;
+    }
+
+}
@@ -28,11 +28,18 @@ public class MoveLog {
         moveList.add(move);
     }
 
+    /**
+     * @return all Moves of the log, separated by spaces (each Move's notation is computed in constant time).
+     */
     @Override
     public String toString() {
-        for (Move m : moveList) {
-            return m.toString();
+        final StringBuilder log = new StringBuilder(moveList.size() * 6);
+        for (final Move move : moveList) {
+            if (log.length() > 0) {
+                log.append(' ');
+            }
+            log.append(move);
         }
-        return "";
+        return log.toString();
     }
 }
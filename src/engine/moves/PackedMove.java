@@ -0,0 +1,128 @@
+package engine.moves;
+
+import engine.board.Board;
+import engine.board.BoardUtilities;
+import engine.moves.Move.MoveFactory;
+import engine.moves.Move.PawnDoubleMove;
+import engine.moves.Move.PawnEnPassantMove;
+import engine.moves.Move.PawnPromotion;
+import engine.pieces.Piece.PieceType;
+
+import static engine.pieces.Piece.PieceType.QUEEN;
+
+/**
+ * Moves packed into a single int, for searching without allocating a Move object per generated Move.
+ * Bit layout (lowest bit first):
+ *  0-5   squarePos of moved Piece (0-63)
+ *  6-11  destination squarePos (0-63)
+ * 12-14  PieceType ordinal of moved Piece
+ * 15-17  PieceType ordinal + 1 of captured Piece (0 if no capture)
+ * 18-20  PieceType ordinal + 1 of promoted Piece (0 if no promotion)
+ * 21     Pawn double move flag
+ * 22     en passant flag
+ * 23     castling flag
+ */
+public final class PackedMove {
+
+    public static final int NO_MOVE = 0; // never a real Move, since "from" and "to" Squares would be equal
+    public static final int DOUBLE_MOVE_FLAG = 1 << 21;
+    public static final int EN_PASSANT_FLAG = 1 << 22;
+    public static final int CASTLING_FLAG = 1 << 23;
+
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final int SQUARE_BITS = 0x3F;
+    private static final int TYPE_BITS = 0x7;
+    private static final int TO_SHIFT = 6;
+    private static final int MOVED_SHIFT = 12;
+    private static final int CAPTURED_SHIFT = 15;
+    private static final int PROMOTION_SHIFT = 18;
+
+    private PackedMove() {
+        throw new RuntimeException("The PackedMove class is not instantiable!");
+    }
+
+    /**
+     * @param from squarePos of moved Piece.
+     * @param to destination squarePos of moved Piece.
+     * @param moved PieceType of moved Piece.
+     * @param captured PieceType of captured Piece (null if no capture).
+     * @param promotion PieceType that a Pawn promotes to (null if no promotion).
+     * @param flags DOUBLE_MOVE_FLAG, EN_PASSANT_FLAG, CASTLING_FLAG (or 0).
+     * @return packed Move.
+     */
+    public static int create(final int from, final int to, final PieceType moved,
+                             final PieceType captured, final PieceType promotion, final int flags) {
+        return from |
+               to << TO_SHIFT |
+               moved.ordinal() << MOVED_SHIFT |
+               ((captured != null) ? captured.ordinal() + 1 : 0) << CAPTURED_SHIFT |
+               ((promotion != null) ? promotion.ordinal() + 1 : 0) << PROMOTION_SHIFT |
+               flags;
+    }
+
+    /**
+     * Pack a Move object created on the immutable Board.
+     * @param move to pack.
+     * @return packed Move.
+     */
+    public static int fromMove(final Move move) {
+        int flags = 0;
+        if (move instanceof PawnDoubleMove) flags |= DOUBLE_MOVE_FLAG;
+        if (move instanceof PawnEnPassantMove) flags |= EN_PASSANT_FLAG;
+        if (move.isCastlingMove()) flags |= CASTLING_FLAG;
+
+        return create(move.getCurrPos(), move.getDestPos(), move.getMovedPiece().getType(),
+                      move.isCaptureMove() ? move.getCaptPiece().getType() : null,
+                      (move instanceof PawnPromotion) ? QUEEN : null,
+                      flags);
+    }
+
+    /**
+     * Inflate a packed Move into the Move object of the Board (e.g. for the GUI and the MoveLog).
+     * Pawns on the Board only promote to Queens, so under-promotions inflate to the Queen promotion.
+     * @param board that Move is performed on.
+     * @param move packed Move.
+     * @return the Board's Move with equal positions, or Move.ILLEGAL_MOVE if none.
+     */
+    public static Move toMove(final Board board, final int move) {
+        return MoveFactory.createMove(board, getFrom(move), getTo(move));
+    }
+
+    /**
+     * @param move packed Move.
+     * @return coordinate notation of Move (e.g. "e2e4", or "e7e8q" for promotions).
+     */
+    public static String toString(final int move) {
+        final String notation = BoardUtilities.INSTANCE.getPGNFromPos(getFrom(move)) +
+                                BoardUtilities.INSTANCE.getPGNFromPos(getTo(move));
+        return isPromotion(move) ? notation + getPromotionType(move) : notation;
+    }
+
+    public static int getFrom(final int move) {return move & SQUARE_BITS;}
+    public static int getTo(final int move) {return (move >>> TO_SHIFT) & SQUARE_BITS;}
+    public static PieceType getMovedType(final int move) {return TYPES[(move >>> MOVED_SHIFT) & TYPE_BITS];}
+    public static boolean isCapture(final int move) {return ((move >>> CAPTURED_SHIFT) & TYPE_BITS) != 0;}
+    public static boolean isPromotion(final int move) {return ((move >>> PROMOTION_SHIFT) & TYPE_BITS) != 0;}
+    public static boolean isDoubleMove(final int move) {return (move & DOUBLE_MOVE_FLAG) != 0;}
+    public static boolean isEnPassant(final int move) {return (move & EN_PASSANT_FLAG) != 0;}
+    public static boolean isCastling(final int move) {return (move & CASTLING_FLAG) != 0;}
+
+    /**
+     * @param move packed Move.
+     * @return PieceType of captured Piece (null if no capture).
+     */
+    public static PieceType getCapturedType(final int move) {
+        final int captured = (move >>> CAPTURED_SHIFT) & TYPE_BITS;
+        return (captured != 0) ? TYPES[captured - 1] : null;
+    }
+
+    /**
+     * @param move packed Move.
+     * @return PieceType that Pawn promotes to (null if no promotion).
+     */
+    public static PieceType getPromotionType(final int move) {
+        final int promotion = (move >>> PROMOTION_SHIFT) & TYPE_BITS;
+        return (promotion != 0) ? TYPES[promotion - 1] : null;
+    }
+
+}
@@ -0,0 +1,386 @@
+package engine.moves;
+
+import engine.board.AttackTables;
+import engine.board.SearchBoard;
+import engine.pieces.Piece.PieceType;
+import engine.players.PlayerColor;
+
+import static engine.board.BitBoard.EMPTY_MASK;
+import static engine.board.BitBoard.FULL_MASK;
+import static engine.board.BitBoard.getFirstSquare;
+import static engine.board.BitBoard.getSquareMask;
+import static engine.board.BoardUtilities.*;
+import static engine.board.SearchBoard.NO_PIECE;
+import static engine.moves.PackedMove.*;
+import static engine.pieces.Piece.PieceType.*;
+
+/**
+ * Writes and reads packed Moves in Standard Algebraic Notation (SAN, e.g. "Nbd7", "exd5", "e8=Q+", "O-O-O#").
+ * Neither direction iterates the legal Moves of a position: the Pieces that may move to a Square are looked up from
+ * the attack tables (from the destination Square "backwards"), and only those are made on the SearchBoard to check
+ * for legality. A Move is thus encoded or decoded in time independent of the game's length, and a whole game in time
+ * linear in its Moves. Only a check is followed by a search for a legal reply (to tell '+' from '#').
+ *
+ * A SanNotation reuses its MoveBuffer, so it is used by one thread only (e.g. one per PgnParser).
+ */
+public final class SanNotation {
+
+    private static final char[] TYPE_TO_LETTER = initializeLetters(); // upper case SAN letter of PieceType ordinal
+    private static final PieceType[] LETTER_TO_TYPE = initializeTypes(); // PieceType of SAN letter (e.g. 'N')
+    private static final String SHORT_CASTLING = "O-O";
+    private static final String LONG_CASTLING = "O-O-O";
+
+    private final MoveBuffer buffer = new MoveBuffer(1);
+
+    private static char[] initializeLetters() {
+        final char[] letters = new char[PieceType.values().length];
+        for (final PieceType type : PieceType.values()) {
+            letters[type.ordinal()] = Character.toUpperCase(type.toString().charAt(0));
+        }
+        return letters;
+    }
+
+    private static PieceType[] initializeTypes() {
+        final PieceType[] types = new PieceType[128];
+        for (final PieceType type : PieceType.values()) {
+            if (type != PAWN) {
+                types[TYPE_TO_LETTER[type.ordinal()]] = type;
+            }
+        }
+        return types;
+    }
+
+    // ENCODING
+
+    /**
+     * @param board that Move is made on (unchanged when done).
+     * @param move legal packed Move of the Player to move.
+     * @return SAN of Move, incl. check or mate suffix.
+     */
+    public String toSan(final SearchBoard board, final int move) {
+        final StringBuilder san = new StringBuilder(8);
+        appendSan(san, board, move);
+        return san.toString();
+    }
+
+    /**
+     * @param san to append the SAN of Move to.
+     * @param board that Move is made on (unchanged when done).
+     * @param move legal packed Move of the Player to move.
+     */
+    public void appendSan(final StringBuilder san, final SearchBoard board, final int move) {
+        final int from = getFrom(move);
+        final int to = getTo(move);
+        final PieceType type = getMovedType(move);
+
+        if (PackedMove.isCastling(move)) {
+            san.append((to < from) ? LONG_CASTLING : SHORT_CASTLING);
+        } else if (type == PAWN) {
+            if (isCapture(move)) {
+                san.append(getColumnLetter(from)).append('x');
+            }
+            appendSquare(san, to);
+            if (isPromotion(move)) {
+                san.append('=').append(TYPE_TO_LETTER[PackedMove.getPromotionType(move).ordinal()]);
+            }
+        } else {
+            san.append(TYPE_TO_LETTER[type.ordinal()]);
+            appendDisambiguation(san, from, getOtherOrigins(board, move));
+            if (isCapture(move)) {
+                san.append('x');
+            }
+            appendSquare(san, to);
+        }
+
+        board.makeMove(move);
+        if (board.isKingAttacked(board.getCurrColor())) {
+            san.append(hasLegalMove(board) ? '+' : '#');
+        }
+        board.unmakeMove();
+    }
+
+    /**
+     * Append the movetext of a game in SAN, with move numbers (e.g. "1. e4 e5 2. Nf3", or "12... Qd8 13. Bb5+").
+     * @param san to append the movetext to.
+     * @param board the Moves are made on, one after another (unchanged when done).
+     * @param moves legal packed Moves.
+     * @param fullMoveNumber of the first Move (e.g. FenParser.getFullMoveNumber()).
+     */
+    public void appendMovetext(final StringBuilder san, final SearchBoard board, final int[] moves,
+                               final int fullMoveNumber) {
+        int moveNumber = fullMoveNumber;
+        for (int i = 0; i < moves.length; i++) {
+            if (i > 0) {
+                san.append(' ');
+            }
+            final boolean white = board.getCurrColor().isWhite();
+            if (white || i == 0) {
+                san.append(moveNumber).append(white ? ". " : "... ");
+            }
+            appendSan(san, board, moves[i]);
+            board.makeMove(moves[i]);
+            if (!white) {
+                moveNumber++;
+            }
+        }
+        for (int i = 0; i < moves.length; i++) {
+            board.unmakeMove();
+        }
+    }
+
+    /**
+     * The other Pieces of the moved type and color attacking the destination Square, which might move there legally
+     * as well. Only these candidates (usually none) are made on the Board to check them.
+     * @return mask of Squares of the other Pieces that could make the Move.
+     */
+    private long getOtherOrigins(final SearchBoard board, final int move) {
+        final PieceType type = getMovedType(move);
+        final int to = getTo(move);
+        long others = MoveGenerator.getPieceAttacks(type, to, board.getAllOccupancy()) &
+                      board.getPieces(board.getCurrColor(), type) & ~getSquareMask(getFrom(move));
+
+        long candidates = others;
+        while (candidates != EMPTY_MASK) {
+            final int other = getFirstSquare(candidates);
+            candidates &= candidates - 1;
+            if (!isLegal(board, create(other, to, type, getCapturedType(move), null, 0))) {
+                others &= ~getSquareMask(other);
+            }
+        }
+        return others;
+    }
+
+    /**
+     * Append the column of the moved Piece, if it tells the Piece from the others; else its row, if that does; else
+     * both (e.g. for a third Queen).
+     * @param san to append to.
+     * @param from Square of moved Piece.
+     * @param others mask of Squares of the other Pieces that could make the Move.
+     */
+    static void appendDisambiguation(final StringBuilder san, final int from, final long others) {
+        if (others == EMPTY_MASK) {
+            return;
+        }
+        if ((others & getColumnMask(from)) == EMPTY_MASK) {
+            san.append(getColumnLetter(from));
+        } else if ((others & getRowMask(from)) == EMPTY_MASK) {
+            san.append(getRowDigit(from));
+        } else {
+            appendSquare(san, from);
+        }
+    }
+
+    private boolean hasLegalMove(final SearchBoard board) {
+        MoveGenerator.generateMoves(board, buffer, 0);
+        for (int i = 0; i < buffer.size(0); i++) {
+            if (isLegal(board, buffer.get(0, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // DECODING
+
+    /**
+     * @param board that Move is made on (unchanged when done).
+     * @param san of a Move (check, mate and annotation suffixes are ignored).
+     * @return the legal packed Move described, or NO_MOVE if none (or more than one) matches.
+     */
+    public int fromSan(final SearchBoard board, final CharSequence san) {
+        return fromSan(board, san, 0, san.length());
+    }
+
+    /**
+     * Resolve a SAN Move to the legal Move of the Board it describes: the Pieces of the given type that may move to
+     * the destination Square, narrowed down by the column and/or row of the moved Piece, if given. Pawn Moves, Pawn
+     * captures without the Pawn's column (e.g. "d5" for "exd5") and promotions without a type (to a Queen) are read
+     * as well, and castling also written with zeros.
+     * @param board that Move is made on (unchanged when done).
+     * @param san holding the SAN of a Move.
+     * @param start index of SAN's first char.
+     * @param end index after SAN's last char.
+     * @return the legal packed Move described, or NO_MOVE if none (or more than one) matches.
+     */
+    public int fromSan(final SearchBoard board, final CharSequence san, final int start, final int end) {
+        int last = end; // after last char of SAN, without check, mate and annotation suffixes
+        while (last > start && isSuffix(san.charAt(last - 1))) {
+            last--;
+        }
+        if (isCastling(san, start, last)) {
+            return findCastling(board, last - start == LONG_CASTLING.length());
+        }
+        if (last - start < 2) {
+            return NO_MOVE;
+        }
+
+        int i = start;
+        final PieceType type = (getPieceType(san.charAt(i)) != null) ? getPieceType(san.charAt(i++)) : PAWN;
+        PieceType promotion = null;
+        if (type == PAWN && last - i > 2) { // "e8=Q", or "e8Q"
+            promotion = getPromotionType(san.charAt(last - 1));
+            if (promotion != null) {
+                last -= (san.charAt(last - 2) == '=') ? 2 : 1;
+            }
+        }
+        if (last - i < 2 || !isColumn(san.charAt(last - 2)) || !isRow(san.charAt(last - 1))) {
+            return NO_MOVE;
+        }
+        final int to = ('8' - san.charAt(last - 1)) * SQUARES_ON_ROW + (san.charAt(last - 2) - 'a');
+
+        long origins = FULL_MASK;
+        for (; i < last - 2; i++) {
+            final char c = san.charAt(i);
+            if (isColumn(c)) {
+                origins &= COLUMN_A << (c - 'a');
+            } else if (isRow(c)) {
+                origins &= ROW_8 << (('8' - c) * SQUARES_ON_ROW);
+            } else if (c != 'x' && c != ':' && c != '-') {
+                return NO_MOVE;
+            }
+        }
+
+        final PlayerColor color = board.getCurrColor();
+        if ((board.getOccupancy(color) & getSquareMask(to)) != 0 ||
+            (promotion != null && !color.hasReachedPromotion(to))) {
+            return NO_MOVE;
+        }
+        origins &= (type == PAWN) ? getPawnOrigins(board, color, to)
+                                  : MoveGenerator.getPieceAttacks(type, to, board.getAllOccupancy()) &
+                                    board.getPieces(color, type);
+
+        int found = NO_MOVE;
+        while (origins != EMPTY_MASK) {
+            final int from = getFirstSquare(origins);
+            origins &= origins - 1;
+            final int move = createMove(board, from, to, type, promotion);
+            if (!isLegal(board, move)) {
+                continue;
+            }
+            if (found != NO_MOVE) {
+                return NO_MOVE; // ambiguous
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    /**
+     * @return mask of Squares of the Pawns that may move to (or capture on) the destination Square.
+     */
+    private static long getPawnOrigins(final SearchBoard board, final PlayerColor color, final int to) {
+        final long pawns = board.getPieces(color, PAWN);
+        final long empty = ~board.getAllOccupancy();
+        final int dir = color.getMoveDir() * SQUARES_ON_ROW; // one row "forwards"
+        final long toMask = getSquareMask(to);
+        long origins = EMPTY_MASK;
+
+        if ((empty & toMask) != 0) { // SINGLE & DOUBLE MOVE
+            final int single = to - dir;
+            if (single >= 0 && single < SQUARES_ON_BOARD) {
+                final int jump = single - dir;
+                if ((pawns & getSquareMask(single)) != 0) {
+                    origins |= getSquareMask(single);
+                } else if ((empty & getSquareMask(single)) != 0 && jump >= 0 && jump < SQUARES_ON_BOARD &&
+                           MoveGenerator.isPawnStartSquare(jump, color)) { // only a Pawn on its start Square jumps
+                    origins |= pawns & getSquareMask(jump);
+                }
+            }
+        }
+        if ((board.getOccupancy(color.getOppColor()) & toMask) != 0 || to == board.getEnPassantSquare()) {
+            origins |= pawns & AttackTables.getPawnAttacks(to, color.getOppColor().ordinal()); // CAPTURES
+        }
+        return origins;
+    }
+
+    /**
+     * @return packed Move, with the flags set as by the MoveGenerator.
+     */
+    private static int createMove(final SearchBoard board, final int from, final int to, final PieceType type,
+                                  final PieceType promotion) {
+        final int index = board.getBoardIndex(to);
+        final PieceType captured = (index != NO_PIECE) ? SearchBoard.getPieceType(index) : null;
+        if (type != PAWN) {
+            return create(from, to, type, captured, null, 0);
+        }
+        if (captured == null && getColumn(from) != getColumn(to)) {
+            return create(from, to, PAWN, PAWN, null, EN_PASSANT_FLAG);
+        }
+        if (Math.abs(to - from) == 2 * SQUARES_ON_ROW) {
+            return create(from, to, PAWN, null, null, DOUBLE_MOVE_FLAG);
+        }
+        final boolean promoting = board.getCurrColor().hasReachedPromotion(to);
+        return create(from, to, PAWN, captured, promoting ? ((promotion != null) ? promotion : QUEEN) : null, 0);
+    }
+
+    private int findCastling(final SearchBoard board, final boolean queenside) {
+        buffer.clear(0);
+        MoveGenerator.generateCastlingMoves(board, buffer, 0, board.getCurrColor()); // legal, if generated
+        for (int i = 0; i < buffer.size(0); i++) {
+            final int move = buffer.get(0, i);
+            if ((getTo(move) < getFrom(move)) == queenside) {
+                return move;
+            }
+        }
+        return NO_MOVE;
+    }
+
+    // UTILITIES
+
+    private static boolean isLegal(final SearchBoard board, final int move) {
+        board.makeMove(move);
+        final boolean legal = !board.isKingAttacked(board.getCurrColor().getOppColor());
+        board.unmakeMove();
+        return legal;
+    }
+
+    /**
+     * @return true for "O-O" and "O-O-O" (also written with zeros), without suffixes.
+     */
+    private static boolean isCastling(final CharSequence san, final int start, final int last) {
+        if (last - start != SHORT_CASTLING.length() && last - start != LONG_CASTLING.length()) {
+            return false;
+        }
+        for (int i = start; i < last; i++) {
+            final char c = san.charAt(i);
+            if (((i - start) % 2 == 0) ? (c != 'O' && c != '0') : c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return PieceType of upper case SAN letter (e.g. 'N'), or null if none (also for Pawns).
+     */
+    private static PieceType getPieceType(final char c) {
+        return (c < LETTER_TO_TYPE.length) ? LETTER_TO_TYPE[c] : null;
+    }
+
+    /**
+     * @return PieceType of promotion letter (upper or lower case), or null if none.
+     */
+    private static PieceType getPromotionType(final char c) {
+        final PieceType type = getPieceType(Character.toUpperCase(c));
+        return (type == KING) ? null : type;
+    }
+
+    private static void appendSquare(final StringBuilder san, final int squarePos) {
+        san.append(getColumnLetter(squarePos)).append(getRowDigit(squarePos));
+    }
+
+    private static long getColumnMask(final int squarePos) {
+        return COLUMN_A << getColumn(squarePos);
+    }
+
+    private static long getRowMask(final int squarePos) {
+        return ROW_8 << (getRow(squarePos) * SQUARES_ON_ROW);
+    }
+
+    private static char getColumnLetter(final int squarePos) {return (char) ('a' + getColumn(squarePos));}
+    private static char getRowDigit(final int squarePos) {return (char) ('8' - getRow(squarePos));}
+    private static boolean isColumn(final char c) {return c >= 'a' && c <= 'h';}
+    private static boolean isRow(final char c) {return c >= '1' && c <= '8';}
+    private static boolean isSuffix(final char c) {return c == '+' || c == '#' || c == '!' || c == '?';}
+
+}
@@ -0,0 +1,174 @@
+package engine.perft;
+
+import engine.board.Board;
+import engine.board.SearchBoard;
+import engine.moves.Move;
+import engine.moves.MoveBuffer;
+import engine.moves.MoveGenerator;
+import engine.moves.MoveTransaction;
+import engine.moves.PackedMove;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static engine.moves.MoveTransactionResult.COMPLETED;
+
+/**
+ * Perft ("performance test"): count all leaf nodes of the legal Move tree to a fixed depth. The counts are compared
+ * to published results to verify Move generation, and timed to measure its speed (nodes per second).
+ * Both the immutable Board (Moves performed by Players) and the SearchBoard (packed Moves) can be walked. The Board
+ * only promotes to Queens, so its counts are compared only up to PerftPosition.getMaxBoardDepth().
+ *
+ * Usage: Perft [position] [depth] [divide] [search]
+ *  position  a PerftPosition name (default INITIAL)
+ *  depth     max depth (default 4), every depth from 1 is counted
+ *  divide    print the node count below each root Move at max depth
+ *  search    walk a SearchBoard instead of the Board
+ */
+public final class Perft {
+
+    private Perft() {
+        throw new RuntimeException("The Perft class is not instantiable!");
+    }
+
+    public static void main(final String[] args) {
+        PerftPosition position = PerftPosition.INITIAL;
+        int depth = 4;
+        boolean divide = false;
+        boolean search = false;
+
+        for (final String arg : args) {
+            if (arg.equalsIgnoreCase("divide")) {
+                divide = true;
+            } else if (arg.equalsIgnoreCase("search")) {
+                search = true;
+            } else if (Character.isDigit(arg.charAt(0))) {
+                depth = Integer.parseInt(arg);
+            } else {
+                position = PerftPosition.valueOf(arg.toUpperCase());
+            }
+        }
+
+        final Board board = position.createBoard();
+        System.out.println(position + " (" + position.getFen() + ")");
+        System.out.println(board);
+
+        for (int d = 1; d <= depth; d++) {
+            final long start = System.nanoTime();
+            final long nodes = search ? perft(SearchBoard.fromBoard(board), d) : perft(board, d);
+            final long nanos = System.nanoTime() - start;
+
+            final String expected;
+            if (d > position.getMaxDepth()) {
+                expected = "unknown";
+            } else if (!search && d > position.getMaxBoardDepth()) {
+                expected = "not verified (published count includes underpromotions, the Board only promotes to Queens)";
+            } else {
+                expected = (nodes == position.getNodes(d)) ? "ok" : "expected " + position.getNodes(d);
+            }
+            System.out.printf("depth %2d %,15d nodes %,10d ms %,12d nps  %s%n",
+                              d, nodes, nanos / 1_000_000, getNodesPerSecond(nodes, nanos), expected);
+        }
+
+        if (divide) {
+            final Map<String, Long> moves = search ? divide(SearchBoard.fromBoard(board), depth) : divide(board, depth);
+            for (final Map.Entry<String, Long> entry : moves.entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+            }
+            System.out.println("Moves: " + moves.size());
+        }
+    }
+
+    /**
+     * @param nodes counted.
+     * @param nanos elapsed time in nanoseconds.
+     * @return nodes per second.
+     */
+    public static long getNodesPerSecond(final long nodes, final long nanos) {
+        return (nanos > 0) ? nodes * 1_000_000_000L / nanos : 0;
+    }
+
+    /**
+     * Count leaf nodes by performing every legal Move of the current Player, creating a new Board per Move.
+     * @param board to start from.
+     * @param depth number of plies (0 counts the Board itself).
+     * @return number of leaf nodes.
+     */
+    public static long perft(final Board board, final int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        long nodes = 0;
+        for (final Move move : board.getCurrPlayer().getLegalMoves()) {
+            final MoveTransaction transaction = board.getCurrPlayer().performMove(move);
+            if (transaction.getResult() == COMPLETED) {
+                nodes += perft(transaction.getNewBoard(), depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * @param board to start from.
+     * @param depth number of plies (at least 1).
+     * @return leaf node count below each legal root Move, keyed by the Move's coordinate notation.
+     */
+    public static Map<String, Long> divide(final Board board, final int depth) {
+        final Map<String, Long> moves = new LinkedHashMap<>();
+        for (final Move move : board.getCurrPlayer().getLegalMoves()) {
+            final MoveTransaction transaction = board.getCurrPlayer().performMove(move);
+            if (transaction.getResult() == COMPLETED) {
+                moves.put(PackedMove.toString(PackedMove.fromMove(move)),
+                          perft(transaction.getNewBoard(), depth - 1));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Count leaf nodes by making and unmaking packed Moves on one SearchBoard. At the last ply the legal Moves are
+     * only counted, not made ("bulk counting").
+     * @param board to start from (restored when done).
+     * @param depth number of plies (0 counts the Board itself).
+     * @return number of leaf nodes.
+     */
+    public static long perft(final SearchBoard board, final int depth) {
+        return (depth == 0) ? 1 : perft(board, new MoveBuffer(depth), depth, 0);
+    }
+
+    private static long perft(final SearchBoard board, final MoveBuffer buffer, final int depth, final int ply) {
+        final int count = MoveGenerator.generateLegalMoves(board, buffer, ply);
+        if (depth == 1) {
+            return count;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(buffer.get(ply, i));
+            nodes += perft(board, buffer, depth - 1, ply + 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * @param board to start from (restored when done).
+     * @param depth number of plies (at least 1).
+     * @return leaf node count below each legal root Move, keyed by the Move's coordinate notation.
+     */
+    public static Map<String, Long> divide(final SearchBoard board, final int depth) {
+        final Map<String, Long> moves = new LinkedHashMap<>();
+        final MoveBuffer buffer = new MoveBuffer(depth);
+        final int count = MoveGenerator.generateLegalMoves(board, buffer, 0);
+
+        for (int i = 0; i < count; i++) {
+            final int move = buffer.get(0, i);
+            board.makeMove(move);
+            moves.put(PackedMove.toString(move), (depth > 1) ? perft(board, buffer, depth - 1, 1) : 1L);
+            board.unmakeMove();
+        }
+        return moves;
+    }
+
+}
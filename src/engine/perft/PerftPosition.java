@@ -0,0 +1,59 @@
+package engine.perft;
+
+import engine.board.Board;
+
+/**
+ * Standard perft test positions, with their published node counts per depth (index 0 is depth 1).
+ * See https://www.chessprogramming.org/Perft_Results
+ *
+ * The Board only promotes to Queens, so it reaches the published counts only up to getMaxBoardDepth(); deeper counts
+ * include underpromotions. The SearchBoard generates all promotions.
+ */
+public enum PerftPosition {
+
+    INITIAL("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq", 6,
+            20L, 400L, 8902L, 197281L, 4865609L, 119060324L),
+
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq", 3,
+             48L, 2039L, 97862L, 4085603L, 193690690L),
+
+    POSITION_3("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w -", 5,
+               14L, 191L, 2812L, 43238L, 674624L, 11030083L),
+
+    POSITION_4("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq", 1,
+               6L, 264L, 9467L, 422333L, 15833292L),
+
+    POSITION_5("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ", 0,
+               44L, 1486L, 62379L, 2103487L, 89941194L);
+
+    private final String fen;
+    private final int maxBoardDepth; // published counts up to this depth have no underpromotions
+    private final long[] nodes;
+
+    PerftPosition(final String fen, final int maxBoardDepth, final long... nodes) {
+        this.fen = fen;
+        this.maxBoardDepth = maxBoardDepth;
+        this.nodes = nodes;
+    }
+
+    public String getFen() {return fen;}
+    public int getMaxDepth() {return nodes.length;}
+    public int getMaxBoardDepth() {return maxBoardDepth;}
+
+    /**
+     * @param depth of perft (1 to getMaxDepth()).
+     * @return published number of leaf nodes at given depth.
+     */
+    public long getNodes(final int depth) {
+        return nodes[depth - 1];
+    }
+
+    /**
+     * Create the position on a new Board (castling rights become "first move" flags of Kings and Rooks).
+     * @return an instance of Board.
+     */
+    public Board createBoard() {
+        return Board.fromFen(fen);
+    }
+
+}
@@ -0,0 +1,85 @@
+package engine.pgn;
+
+import com.google.common.collect.ImmutableMap;
+import engine.board.FenParser;
+import engine.board.SearchBoard;
+import engine.moves.SanNotation;
+
+import java.util.Map;
+
+/**
+ * A game read by the PgnReader: its tag pairs, and its Moves resolved to packed Moves (see PackedMove) by replaying
+ * them on a SearchBoard from the start position. Variations, comments and annotations are not kept.
+ * A game whose movetext can't be replayed (e.g. an illegal or ambiguous Move) keeps the Moves before it, and an error.
+ */
+public final class PgnGame {
+
+    public static final String UNKNOWN_RESULT = "*";
+
+    private final long offset; // of the game's first byte in the file
+    private final Map<String, String> tags; // in order of the file
+    private final int[] moves;
+    private final String result;
+    private final String error; // null if all Moves were replayed
+
+    PgnGame(final long offset, final Map<String, String> tags, final int[] moves, final String result,
+            final String error) {
+        this.offset = offset;
+        this.tags = ImmutableMap.copyOf(tags);
+        this.moves = moves;
+        this.result = result;
+        this.error = error;
+    }
+
+    /**
+     * @return FEN of the start position: the "FEN" tag, if the game has one, else the initial position.
+     */
+    public String getStartFen() {
+        final String fen = tags.get("FEN");
+        return (fen != null) ? fen : SearchBoard.START_FEN;
+    }
+
+    /**
+     * @return a new SearchBoard with the game's Moves made on it (so repetitions of its positions are detected).
+     */
+    public SearchBoard createBoard() {
+        final SearchBoard board = SearchBoard.fromFen(getStartFen());
+        for (final int move : moves) {
+            board.makeMove(move);
+        }
+        return board;
+    }
+
+    /**
+     * Write the game's Moves in SAN (e.g. for exporting a corpus of imported games), replaying them once on a new
+     * SearchBoard; disambiguation, check and mate are computed per Move by a SanNotation (see there).
+     * @return movetext with move numbers and the game termination marker (e.g. "1. e4 e5 2. Nf3 Nc6 1-0").
+     */
+    public String getMovetext() {
+        final FenParser parser = new FenParser();
+        parser.parse(getStartFen());
+        final StringBuilder movetext = new StringBuilder(moves.length * 6 + 8);
+        new SanNotation().appendMovetext(movetext, SearchBoard.fromFen(parser), moves, parser.getFullMoveNumber());
+        return movetext.append((moves.length > 0) ? " " : "").append(result).toString();
+    }
+
+    /**
+     * @param name of tag (e.g. "White", or "Date").
+     * @return value of tag, or null if the game has none.
+     */
+    public String getTag(final String name) {return tags.get(name);}
+    public Map<String, String> getTags() {return tags;}
+    public long getOffset() {return offset;}
+    public int[] getMoves() {return moves;} // packed Moves (shared array, not to be modified)
+    public int getMoveCount() {return moves.length;}
+    public String getResult() {return result;} // game termination marker (e.g. "1-0"), or UNKNOWN_RESULT
+    public boolean hasError() {return error != null;}
+    public String getError() {return error;}
+
+    @Override
+    public String toString() {
+        return tags.get("White") + " - " + tags.get("Black") + " " + result + " (" + moves.length + " plies" +
+               ((error != null) ? ", " + error + ")" : ")");
+    }
+
+}
@@ -0,0 +1,336 @@
+package engine.pgn;
+
+import engine.board.FenParser;
+import engine.board.SearchBoard;
+import engine.moves.SanNotation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static engine.moves.PackedMove.NO_MOVE;
+
+/**
+ * Reads the games of one chunk of a PGN file (see PgnReader), tokenizing tag pairs and movetext directly from the
+ * bytes. SAN Moves are resolved by a SanNotation on a SearchBoard the game is replayed on (reading the bytes in place),
+ * so only tag values and the final array of packed Moves are allocated per game. A parser is used by one thread only.
+ */
+final class PgnParser {
+
+    private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", PgnGame.UNKNOWN_RESULT};
+
+    private final ByteBuffer bytes; // chunk, from index 0 to limit
+    private final long offset; // of chunk in file
+    private final int end;
+    private int pos;
+
+    private final FenParser fenParser = new FenParser();
+    private final SearchBoard board = SearchBoard.fromFen(SearchBoard.START_FEN);
+    private final SanNotation sanNotation = new SanNotation();
+    private final CharSequence chars = new ChunkChars();
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private byte[] value = new byte[64]; // unescaped tag value
+    private int[] moves = new int[256];
+    private int moveCount;
+    private String error;
+
+    /**
+     * @param bytes of whole games (from index 0 to limit).
+     * @param offset of first byte in file.
+     */
+    PgnParser(final ByteBuffer bytes, final long offset) {
+        this.bytes = bytes;
+        this.offset = offset;
+        end = bytes.limit();
+        if (offset == 0 && end >= 3 && bytes.get(0) == (byte) 0xEF && bytes.get(1) == (byte) 0xBB &&
+            bytes.get(2) == (byte) 0xBF) {
+            pos = 3; // UTF-8 byte order mark
+        }
+    }
+
+    /**
+     * @return all games of the chunk, in order of the file.
+     */
+    List<PgnGame> parseGames() {
+        final List<PgnGame> games = new ArrayList<>();
+        while (skipToGame()) {
+            final int start = pos;
+            tags.clear();
+            moveCount = 0;
+            error = null;
+
+            while (pos < end && bytes.get(pos) == '[') {
+                parseTag();
+                skipSpaces();
+            }
+            setStartPosition();
+            final String result = parseMovetext();
+            games.add(new PgnGame(offset + start, tags, Arrays.copyOf(moves, moveCount), result, error));
+        }
+        return games;
+    }
+
+    /**
+     * Skip white space and escaped lines ('%' at start of line) before the next game.
+     * @return true if a game follows.
+     */
+    private boolean skipToGame() {
+        while (true) {
+            skipSpaces();
+            if (pos >= end) {
+                return false;
+            }
+            if (bytes.get(pos) != '%') {
+                return true;
+            }
+            skipLine();
+        }
+    }
+
+    // TAG PAIRS
+
+    /**
+     * [Name "value"], with \" and \\ escaped in the value. A malformed tag is skipped to the end of its line.
+     */
+    private void parseTag() {
+        pos++; // '['
+        skipSpaces();
+        final int nameStart = pos;
+        while (pos < end && !isSpace(bytes.get(pos)) && bytes.get(pos) != '"' && bytes.get(pos) != ']') {
+            pos++;
+        }
+        final int nameEnd = pos;
+        skipSpaces();
+        if (pos >= end || bytes.get(pos) != '"' || nameEnd == nameStart) {
+            skipLine();
+            return;
+        }
+        pos++;
+
+        int length = 0;
+        while (pos < end && bytes.get(pos) != '"' && bytes.get(pos) != '\n') {
+            byte b = bytes.get(pos++);
+            if (b == '\\' && pos < end && (bytes.get(pos) == '"' || bytes.get(pos) == '\\')) {
+                b = bytes.get(pos++);
+            }
+            if (length == value.length) {
+                value = Arrays.copyOf(value, length * 2);
+            }
+            value[length++] = b;
+        }
+        tags.put(getString(nameStart, nameEnd), new String(value, 0, length, StandardCharsets.UTF_8));
+        while (pos < end && bytes.get(pos) != ']' && bytes.get(pos) != '\n') {
+            pos++;
+        }
+        if (pos < end && bytes.get(pos) == ']') {
+            pos++;
+        }
+    }
+
+    private void setStartPosition() {
+        final String fen = tags.get("FEN");
+        try {
+            fenParser.parse((fen != null) ? fen : SearchBoard.START_FEN);
+            board.setFen(fenParser);
+        } catch (final IllegalArgumentException e) {
+            error = e.getMessage();
+        }
+    }
+
+    // MOVETEXT
+
+    /**
+     * Read Moves up to the game termination marker (or the next game's tags, if it is missing). Comments, variations,
+     * move numbers and NAGs are skipped; after an error the rest of the game is only skipped.
+     * @return game termination marker.
+     */
+    private String parseMovetext() {
+        while (true) {
+            skipSpaces();
+            if (pos >= end || bytes.get(pos) == '[') {
+                return PgnGame.UNKNOWN_RESULT;
+            }
+            final byte b = bytes.get(pos);
+            if (b == '{') {
+                skipPast('}');
+            } else if (b == ';' || (b == '%' && (pos == 0 || bytes.get(pos - 1) == '\n'))) {
+                skipLine();
+            } else if (b == '(') {
+                skipVariation();
+            } else if (b == '$') {
+                pos++;
+                skipDigits();
+            } else {
+                final String result = parseToken();
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return game termination marker, if the token is one (else null).
+     */
+    private String parseToken() {
+        final int start = pos;
+        while (pos < end && !isSpace(bytes.get(pos)) && !isDelimiter(bytes.get(pos))) {
+            pos++;
+        }
+        if (pos == start) { // stray delimiter, e.g. ')'
+            pos++;
+            return null;
+        }
+        for (final String result : RESULTS) {
+            if (equals(start, pos, result)) {
+                return result;
+            }
+        }
+
+        int sanStart = start;
+        if (!isCastling(start, pos)) { // skip move number, e.g. "12." or "12..." (possibly followed by the Move)
+            while (sanStart < pos && isDigit(bytes.get(sanStart))) {
+                sanStart++;
+            }
+            while (sanStart < pos && bytes.get(sanStart) == '.') {
+                sanStart++;
+            }
+        }
+        if (sanStart == pos || equals(sanStart, pos, "e.p.") || error != null) {
+            return null;
+        }
+
+        final int move = (moveCount < SearchBoard.MAX_PLY - 1) ? sanNotation.fromSan(board, chars, sanStart, pos)
+                                                                : NO_MOVE;
+        if (move == NO_MOVE) {
+            error = "Illegal or ambiguous move " + getString(sanStart, pos) + " at ply " + (moveCount + 1);
+            return null;
+        }
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moveCount * 2);
+        }
+        moves[moveCount++] = move;
+        board.makeMove(move);
+        return null;
+    }
+
+    /**
+     * @return true for "O-O" and "O-O-O" (also written with zeros).
+     */
+    private boolean isCastling(final int start, final int tokenEnd) {
+        int last = tokenEnd;
+        while (last > start && isSuffix(bytes.get(last - 1))) {
+            last--;
+        }
+        if (last - start != 3 && last - start != 5) {
+            return false;
+        }
+        for (int i = start; i < last; i++) {
+            final byte b = bytes.get(i);
+            if (((i - start) % 2 == 0) ? (b != 'O' && b != '0') : b != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(final byte b) {return b >= '0' && b <= '9';}
+    private static boolean isSpace(final byte b) {return b == ' ' || b == '\n' || b == '\r' || b == '\t';}
+    private static boolean isSuffix(final byte b) {return b == '+' || b == '#' || b == '!' || b == '?';}
+    private static boolean isDelimiter(final byte b) {
+        return b == '{' || b == '}' || b == '(' || b == ')' || b == '[' || b == ']' || b == ';' || b == '$';
+    }
+
+    // SKIPPING
+
+    private void skipSpaces() {
+        while (pos < end && isSpace(bytes.get(pos))) {
+            pos++;
+        }
+    }
+
+    private void skipDigits() {
+        while (pos < end && isDigit(bytes.get(pos))) {
+            pos++;
+        }
+    }
+
+    private void skipLine() {
+        skipPast('\n');
+    }
+
+    private void skipPast(final char c) {
+        while (pos < end && bytes.get(pos) != c) {
+            pos++;
+        }
+        pos++;
+    }
+
+    /**
+     * Skip a (possibly nested) variation, incl. comments in it.
+     */
+    private void skipVariation() {
+        int depth = 0;
+        while (pos < end) {
+            final byte b = bytes.get(pos);
+            if (b == '{') {
+                skipPast('}');
+                continue;
+            }
+            if (b == ';') {
+                skipLine();
+                continue;
+            }
+            pos++;
+            if (b == '(') {
+                depth++;
+            } else if (b == ')' && --depth == 0) {
+                return;
+            }
+        }
+    }
+
+    private boolean equals(final int start, final int end, final String s) {
+        if (end - start != s.length()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (bytes.get(start + i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String getString(final int start, final int end) {
+        final byte[] b = new byte[end - start];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = bytes.get(start + i);
+        }
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The chunk's bytes as chars (ASCII, other bytes as ISO-8859-1), for the SanNotation to read SAN Moves in place.
+     */
+    private final class ChunkChars implements CharSequence {
+
+        @Override
+        public int length() {return end;}
+
+        @Override
+        public char charAt(final int index) {return (char) (bytes.get(index) & 0xFF);}
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {return getString(start, end);}
+
+        @Override
+        public String toString() {return getString(0, end);}
+
+    }
+
+}
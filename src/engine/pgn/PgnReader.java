@@ -0,0 +1,147 @@
+package engine.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Imports the games of a PGN file of any size: the file is memory-mapped in chunks of whole games (FileChannel.map),
+ * and each chunk is tokenized and replayed from its bytes by a PgnParser, without reading lines into Strings.
+ * Chunks are parsed in parallel, so games() is a parallel stream in order of the file (e.g. use forEachOrdered to
+ * keep that order, or sequential() to parse on the calling thread only).
+ *
+ * A chunk ends before a game's first tag, i.e. a '[' at the start of a line following an empty line or a line ending
+ * in a game termination marker. A game longer than a chunk gets a chunk of its own (of at most 2 GB).
+ */
+public final class PgnReader implements Closeable {
+
+    static final int DEFAULT_CHUNK_SIZE = 1 << 23; // bytes per chunk, enough for thousands of games
+
+    private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", PgnGame.UNKNOWN_RESULT};
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private final List<Long> offsets = new ArrayList<>(); // of chunks in file
+
+    private PgnReader(final FileChannel channel, final int chunkSize) throws IOException {
+        this.channel = channel;
+        final long size = channel.size();
+        long start = 0;
+        while (start < size) {
+            long length = Math.min(chunkSize, size - start);
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            int chunkEnd = (start + length == size) ? (int) length : findLastGameStart(chunk);
+            while (chunkEnd == 0) { // no game starts in the chunk (but at its beginning): map more of the file
+                if (length == Integer.MAX_VALUE) {
+                    throw new IOException("No game starts within 2 GB after offset " + start);
+                }
+                length = Math.min(Math.min(length * 2, Integer.MAX_VALUE), size - start);
+                chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                chunkEnd = (start + length == size) ? (int) length : findLastGameStart(chunk);
+            }
+            chunk.limit(chunkEnd);
+            chunks.add(chunk);
+            offsets.add(start);
+            start += chunkEnd;
+        }
+    }
+
+    /**
+     * @param file of games in PGN.
+     * @return a reader of the file (to be closed by the caller; the games stay readable after close).
+     * @throws IOException if the file can't be opened or mapped.
+     */
+    public static PgnReader open(final Path file) throws IOException {
+        return open(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    static PgnReader open(final Path file, final int chunkSize) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new PgnReader(channel, chunkSize);
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return index of the last game's first byte in chunk (0 if none starts after the chunk's first byte).
+     */
+    private static int findLastGameStart(final MappedByteBuffer chunk) {
+        for (int i = chunk.limit() - 1; i > 0; i--) {
+            if (chunk.get(i) == '[' && chunk.get(i - 1) == '\n' &&
+                (isAfterEmptyLine(chunk, i - 1) || isAfterResult(chunk, i - 1))) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isAfterEmptyLine(final MappedByteBuffer chunk, final int lineFeed) {
+        for (int i = lineFeed - 1; i >= 0; i--) {
+            final byte b = chunk.get(i);
+            if (b == '\n') {
+                return true;
+            }
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the line ending at the given line feed ends in a game termination marker (e.g. "... 1-0").
+     */
+    private static boolean isAfterResult(final MappedByteBuffer chunk, final int lineFeed) {
+        int end = lineFeed;
+        while (end > 0 && isSpace(chunk.get(end - 1))) {
+            end--;
+        }
+        for (final String result : RESULTS) {
+            final int start = end - result.length();
+            if (start >= 0 && (start == 0 || isSpace(chunk.get(start - 1))) && endsWith(chunk, end, result)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean endsWith(final MappedByteBuffer chunk, final int end, final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (chunk.get(end - s.length() + i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSpace(final byte b) {return b == ' ' || b == '\t' || b == '\r' || b == '\n';}
+
+    /**
+     * @return all games of the file (parsed in parallel, chunk by chunk).
+     */
+    public Stream<PgnGame> games() {
+        final List<Integer> indices = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            indices.add(i);
+        }
+        return indices.parallelStream()
+                      .flatMap(i -> new PgnParser(chunks.get(i), offsets.get(i)).parseGames().stream());
+    }
+
+    public int getChunkCount() {return chunks.size();}
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // mappings stay valid until garbage collected
+    }
+
+}
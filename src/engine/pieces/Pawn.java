@@ -53,7 +53,7 @@ public final class Pawn extends Piece {
 
             // DOUBLE JUMP
             } else if (offset == 16 && isFirstMove() &&
-                      ((ROW_7.get(squarePos) && color.isBlack()) || (ROW_2.get(squarePos) && color.isWhite()))) {
+                      ((isSquareOnMask(ROW_7, squarePos) && color.isBlack()) || (isSquareOnMask(ROW_2, squarePos) && color.isWhite()))) {
 
                 final int jumpedPos = squarePos + (color.getMoveDir() * 8);
 
@@ -63,7 +63,7 @@ public final class Pawn extends Piece {
 
             // DIAGONAL CAPTURE "WEST"
             } else if (offset == 7 &&
-                      !((COLUMN_H.get(squarePos) && color.isWhite()) || (COLUMN_A.get(squarePos) && color.isBlack()))) {
+                      !((isSquareOnMask(COLUMN_H, squarePos) && color.isWhite()) || (isSquareOnMask(COLUMN_A, squarePos) && color.isBlack()))) {
 
                 if (board.getSquare(destPos).isOccupied()) {
                     final Piece destPiece = board.getSquare(destPos).getPiece();
@@ -82,7 +82,7 @@ public final class Pawn extends Piece {
 
                 // EN PASSANT "WEST"
                 } else if (board.getEnPassantPawn() != null &&
-                           board.getEnPassantPawn().getSquarePos() == (squarePos + (color.getOppDir()))) {
+                           board.getEnPassantPawn().getSquarePos() == (squarePos - (color.getOppDir()))) {
 
                     final Piece destPiece = board.getEnPassantPawn();
                     if (color != destPiece.getColor()) {
@@ -101,7 +101,7 @@ public final class Pawn extends Piece {
 
             // DIAGONAL CAPTURE "EAST"
             } else if (offset == 9 &&
-                      !((COLUMN_A.get(squarePos) && color.isWhite()) || (COLUMN_H.get(squarePos) && color.isBlack()))) {
+                      !((isSquareOnMask(COLUMN_A, squarePos) && color.isWhite()) || (isSquareOnMask(COLUMN_H, squarePos) && color.isBlack()))) {
 
                 if (board.getSquare(destPos).isOccupied()) {
 
@@ -114,7 +114,7 @@ public final class Pawn extends Piece {
                     }
 
                 // EN PASSANT "EAST"
-                } else if (board.getEnPassantPawn() != null && board.getEnPassantPawn().getSquarePos() == (squarePos - (color.getOppDir()))) {
+                } else if (board.getEnPassantPawn() != null && board.getEnPassantPawn().getSquarePos() == (squarePos + (color.getOppDir()))) {
 
                     final Piece destPiece = board.getEnPassantPawn();
 
@@ -1,10 +1,17 @@
 package engine.pieces;
 
+import com.google.common.collect.ImmutableList;
+import engine.board.BitBoard;
 import engine.board.Board;
+import engine.board.Square;
 import engine.moves.Move;
+import engine.moves.Move.NeutralCaptureMove;
+import engine.moves.Move.NeutralMove;
 import engine.players.PlayerColor;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 public abstract class Piece {
 
@@ -85,6 +92,31 @@ public abstract class Piece {
     public abstract Piece performMove(Move move);
     public abstract Collection<Move> calculateLegalMoves(final Board board);
 
+    /**
+     * Create Moves for every Square in an attack mask (e.g. looked up from the sliding Pieces' magic tables).
+     * @param board that Moves are performed on.
+     * @param attacks mask of Squares attacked by this Piece.
+     * @return list of neutral Moves to empty Squares, and capture Moves to Squares held by the opponent.
+     */
+    protected Collection<Move> createMovesFromAttacks(final Board board, final long attacks) {
+        final List<Move> legalMoves = new ArrayList<>();
+        long destinations = attacks & ~board.getBitBoard().getOccupancy(color); // skip own Pieces
+
+        while (destinations != BitBoard.EMPTY_MASK) {
+            final int destPos = BitBoard.getFirstSquare(destinations);
+            destinations &= destinations - 1; // clear lowest set bit (i.e. the Square just handled)
+
+            final Square destSquare = board.getSquare(destPos);
+            if (!destSquare.isOccupied()) {
+                legalMoves.add(new NeutralMove(board, this, destPos));
+            } else {
+                legalMoves.add(new NeutralCaptureMove(board, this, destPos, destSquare.getPiece()));
+            }
+        }
+
+        return ImmutableList.copyOf(legalMoves);
+    }
+
     // INNER CLASS!
     public enum PieceType {
 
@@ -18,11 +18,8 @@ import static engine.players.PlayerColor.BLACK;
 
 public class BlackPlayer extends Player {
 
-    public BlackPlayer(final Board board,
-                       final Collection<Move> blackLegalMoves,
-                       final Collection<Move> whiteLegalMoves) {
-
-        super(board, blackLegalMoves, whiteLegalMoves);
+    public BlackPlayer(final Board board) {
+        super(board);
     }
 
     @Override
@@ -35,8 +32,7 @@ public class BlackPlayer extends Player {
     public Player getOpponent() {return this.board.getWhitePlayer();}
 
     @Override
-    protected Collection<Move> getCastlingMoves(final Collection<Move> legalMovesPlayer,
-                                                final Collection<Move> legalMovesOpponent) {
+    protected Collection<Move> getCastlingMoves() {
 
         final List<Move> castlingMoves = new ArrayList<>();
 
@@ -50,8 +46,8 @@ public class BlackPlayer extends Player {
 
                 if (rookSquareShort.isOccupied() && rookSquareShort.getPiece().isFirstMove()) {
 
-                    if (Player.getCaptureMovesOnSquare(5, legalMovesOpponent).isEmpty() &&
-                        Player.getCaptureMovesOnSquare(6, legalMovesOpponent).isEmpty() &&
+                    if (!isSquareAttacked(5) &&
+                        !isSquareAttacked(6) &&
                         rookSquareShort.getPiece().getType() == ROOK) { // see: #26 @15:20 getPiece().isRook()
 
                         castlingMoves.add(
@@ -79,9 +75,8 @@ public class BlackPlayer extends Player {
 
                 if (rookSquareLong.isOccupied() && rookSquareLong.getPiece().isFirstMove()) {
 
-                    if (Player.getCaptureMovesOnSquare(1, legalMovesOpponent).isEmpty() &&
-                        Player.getCaptureMovesOnSquare(2, legalMovesOpponent).isEmpty() &&
-                        Player.getCaptureMovesOnSquare(3, legalMovesOpponent).isEmpty() &&
+                    if (!isSquareAttacked(2) &&
+                        !isSquareAttacked(3) &&
                         rookSquareLong.getPiece().getType() == ROOK) {
 
                         castlingMoves.add(
@@ -4,13 +4,12 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import engine.board.Board;
 import engine.moves.Move;
+import engine.moves.MoveIndex;
 import engine.moves.MoveTransaction;
 import engine.pieces.King;
 import engine.pieces.Piece;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 import static engine.moves.MoveTransactionResult.*;
 import static engine.pieces.Piece.PieceType.KING;
@@ -19,58 +18,82 @@ public abstract class Player {
 
     protected final Board board;
     protected final King king;
-    protected final Collection<Move> legalMoves;
     private final boolean inCheck;
+    private Collection<Move> legalMoves; // generated on first access (see getLegalMoves)
+    private MoveIndex moveIndex; // legal Moves by Squares, built on first lookup
 
-    protected Player(final Board board,
-                     final Collection<Move> legalMovesPlayer, final Collection<Move> legalMovesOpponent) {
+    protected Player(final Board board) {
 
         this.board = board;
         king = initializeKing();
-
-        legalMoves = ImmutableList.copyOf(
-                Iterables.concat(legalMovesPlayer, getCastlingMoves(legalMovesPlayer, legalMovesOpponent))
-        );
+        inCheck = isSquareAttacked(king.getSquarePos()); // current Player is in check if King is attacked
 
         /*
         Reasons for not having Boolean values for "isCheckmated/isStalemated" at instantation:
-        - "Chicken & egg" problem.
         - Players are constructed when constructing a Board.
         - For calculating checkmate, "canEscape()" gets called.
-        - The method performs all legal Moves to find potential escape Moves,
-          and for that to happen it creates another Board (to perform the Moves on)
-          which in turn causes the Board class to instantiate more Players, and so on..
+        - The method tests all legal Moves against the attack maps to find potential escape Moves,
+          which is wasted work for every Board that is never asked about checkmate or stalemate.
         */
-        inCheck = !Player.getCaptureMovesOnSquare(
-                king.getSquarePos(), legalMovesOpponent
-        ).isEmpty(); // current Player is in check if returned list contains legal Moves
     }
 
     public abstract Collection<Piece> getPieces();
     public abstract PlayerColor getColor();
     public abstract Player getOpponent();
-    protected abstract Collection<Move> getCastlingMoves(final Collection<Move> legalMovesPlayer,
-                                                         final Collection<Move> legalMovesOpponent);
+    protected abstract Collection<Move> getCastlingMoves();
     public King getKing() {return king;}
-    public Collection<Move> getLegalMoves() {return legalMoves;}
 
     /**
-     * Check if a given Square squarePos is capturable by any legal Moves from opposing Player.
-     * @param position of Square to check if any legal capture move can reach.
-     * @param legalMovesOpponent collected by Move type.
-     * @return list of Moves that overlaps their destination squarePos with current Player's Piece-squarePos.
+     * Generate the Player's legal Moves (incl. castling) on first access, and keep them for later calls.
+     * @return legal Moves of Player (which may still leave the own King attacked, see isLeavingKingAttacked).
      */
-    protected static Collection<Move> getCaptureMovesOnSquare(final int position,
-                                                              final Collection<Move> legalMovesOpponent) {
+    public Collection<Move> getLegalMoves() {
+        if (legalMoves == null) {
+            legalMoves = ImmutableList.copyOf(
+                    Iterables.concat(board.getLegalMoves(getPieces()), getCastlingMoves())
+            );
+        }
+        return legalMoves;
+    }
 
-        final List<Move> captureMovesOpponent = new ArrayList<>();
-        for (final Move m : legalMovesOpponent) {
-            if (position == m.getDestPos()) {
-                captureMovesOpponent.add(m);
-            }
+    /**
+     * Look up a legal Move by its Squares (e.g. from the user's clicks), instead of scanning the legal Moves.
+     * @param currPos squarePos of Piece to move.
+     * @param destPos destination squarePos of Piece.
+     * @return the Player's legal Move between given Squares, or Move.ILLEGAL_MOVE if none.
+     */
+    public Move getLegalMove(final int currPos, final int destPos) {
+        return getMoveIndex().get(currPos, destPos);
+    }
+
+    private MoveIndex getMoveIndex() {
+        if (moveIndex == null) {
+            moveIndex = new MoveIndex(getLegalMoves());
         }
+        return moveIndex;
+    }
+
+    /**
+     * Check if a given Square is attacked by any Piece of the opposing Player, using the Board's attack maps
+     * (i.e. without generating the opponent's legal Moves).
+     * @param position of Square to check.
+     * @return true (if the Square is attacked by opposing Player).
+     */
+    protected boolean isSquareAttacked(final int position) {
+        return board.getBitBoard().isSquareAttacked(position, getColor().getOppColor());
+    }
 
-        return ImmutableList.copyOf(captureMovesOpponent);
+    /**
+     * Check if a Move would leave the Player's own King attacked (i.e. moving a pinned Piece, not resolving a check,
+     * or moving the King into an attacked Square). Works backwards from the King's position after the Move.
+     * @param move to check.
+     * @return true (if the King would be attacked after the Move is performed).
+     */
+    public boolean isLeavingKingAttacked(final Move move) {
+        final int kingPos = (move.getMovedPiece().getType() == KING) ? move.getDestPos() : king.getSquarePos();
+        final int captPos = move.isCaptureMove() ? move.getCaptPiece().getSquarePos() : -1;
+        return board.getBitBoard().isSquareAttackedAfterMove(kingPos, getColor().getOppColor(),
+                                                             move.getCurrPos(), move.getDestPos(), captPos);
     }
 
     /**
@@ -97,23 +120,13 @@ public abstract class Player {
             ); // return same Board as before attempted Move (i.e. current positioning)
         }
 
-        // PERFORM MOVE ON NEW BOARD, LOOK FOR POSITIONS WHERE KING IS CHECKED
-        final Board newBoard = move.perform(); // new Board switches current Player to "next color"
-
-        // MOVE LEAVES PLAYER IN CHECK
-        Collection<Move> checkMoves = getCaptureMovesOnSquare(newBoard.getCurrPlayer()
-                                                                      .getOpponent()
-                                                                      .getKing()
-                                                                      .getSquarePos(),
-                                                              newBoard.getCurrPlayer()
-                                                                      .getLegalMoves()
-        ); // get check attempts against opponent's King (after move, current player is the opponent)
-
-        if (!checkMoves.isEmpty()) {
+        // MOVE LEAVES PLAYER IN CHECK (checked on attack maps, before any new Board is created)
+        if (isLeavingKingAttacked(move)) {
             return new MoveTransaction(board, board, move, PLAYER_CHECKED);
-        } // if list isn't empty, the King is checked
+        }
 
-        // MOVE IS LEGAL
+        // MOVE IS LEGAL, PERFORM MOVE ON NEW BOARD
+        final Board newBoard = move.perform(); // new Board switches current Player to "next color"
         return new MoveTransaction(board, newBoard, move, COMPLETED); // return new Board with new positions
     }
 
@@ -121,20 +134,19 @@ public abstract class Player {
         return new MoveTransaction(board, move.undo(), move, COMPLETED);
     }
 
-    public boolean isAttemptingLegalMove(final Move attemptedMove) {return legalMoves.contains(attemptedMove);}
+    public boolean isAttemptingLegalMove(final Move attemptedMove) {return getMoveIndex().contains(attemptedMove);}
     public boolean isChecked() {return inCheck;}
     public boolean isCheckmated() {return inCheck && !canEscape();}
     public boolean isStalemated() {return !inCheck && !canEscape();}
     public boolean isCastled() {return false;}
 
     /**
-     * Check if Player can escape a checked squarePos, by performing legal Moves on a separate Board.
+     * Check if Player can escape a checked squarePos, by testing legal Moves against the attack maps.
      * @return true (if any of the Player's current legal Moves removes him from check by opponent).
      */
     protected boolean canEscape() {
-        for (final Move m : legalMoves) {
-            final MoveTransaction transaction = performMove(m);
-            if (transaction.getResult() == COMPLETED) {
+        for (final Move m : getLegalMoves()) {
+            if (!isLeavingKingAttacked(m)) {
                 return true;
             }
         }
@@ -15,13 +15,16 @@ public enum PlayerColor {
         @Override
         public int getOppDir() {return DOWN_DIR;} // 1
 
+        @Override
+        public PlayerColor getOppColor() {return WHITE;}
+
         @Override
         public boolean isBlack() {return true;}
         @Override
         public boolean isWhite() {return false;}
 
         @Override
-        public boolean hasReachedPromotion(final int squarePos) {return BoardUtilities.ROW_1.get(squarePos);}
+        public boolean hasReachedPromotion(final int squarePos) {return BoardUtilities.isSquareOnMask(BoardUtilities.ROW_1, squarePos);}
 
         @Override
         public String toString() {return "b";}
@@ -38,13 +41,16 @@ public enum PlayerColor {
         @Override
         public int getOppDir() {return UP_DIR;} // -1
 
+        @Override
+        public PlayerColor getOppColor() {return BLACK;}
+
         @Override
         public boolean isBlack() {return false;}
         @Override
         public boolean isWhite() {return true;}
 
         @Override
-        public boolean hasReachedPromotion(final int squarePos) {return BoardUtilities.ROW_8.get(squarePos);}
+        public boolean hasReachedPromotion(final int squarePos) {return BoardUtilities.isSquareOnMask(BoardUtilities.ROW_8, squarePos);}
 
         @Override
         public String toString() {return "w";}
@@ -56,6 +62,7 @@ public enum PlayerColor {
     public abstract Player setPlayer(final WhitePlayer white, final BlackPlayer black);
     public abstract int getMoveDir();
     public abstract int getOppDir(); // get opposite move direction
+    public abstract PlayerColor getOppColor(); // get color of opposing Player
     public abstract boolean isBlack();
     public abstract boolean isWhite();
     public abstract boolean hasReachedPromotion(final int squarePos);
@@ -18,11 +18,8 @@ import static engine.players.PlayerColor.WHITE;
 
 public class WhitePlayer extends Player {
 
-    public WhitePlayer(final Board board,
-                       final Collection<Move> whiteLegalMoves,
-                       final Collection<Move> blackLegalMoves) {
-
-        super(board, whiteLegalMoves, blackLegalMoves);
+    public WhitePlayer(final Board board) {
+        super(board);
     }
 
     @Override
@@ -35,8 +32,7 @@ public class WhitePlayer extends Player {
     public Player getOpponent() {return this.board.getBlackPlayer();}
 
     @Override
-    protected Collection<Move> getCastlingMoves(final Collection<Move> legalMovesPlayer,
-                                                final Collection<Move> legalMovesOpponent) {
+    protected Collection<Move> getCastlingMoves() {
 
         final List<Move> castlingMoves = new ArrayList<>();
 
@@ -50,8 +46,8 @@ public class WhitePlayer extends Player {
 
                 if (rookSquareShort.isOccupied() && rookSquareShort.getPiece().isFirstMove()) {
 
-                    if (Player.getCaptureMovesOnSquare(61, legalMovesOpponent).isEmpty() &&
-                        Player.getCaptureMovesOnSquare(62, legalMovesOpponent).isEmpty() &&
+                    if (!isSquareAttacked(61) &&
+                        !isSquareAttacked(62) &&
                         rookSquareShort.getPiece().getType() == ROOK) { // see: #26 @15:20 getPiece().isRook()
 
                         castlingMoves.add(
@@ -79,9 +75,8 @@ public class WhitePlayer extends Player {
 
                 if (rookSquareLong.isOccupied() && rookSquareLong.getPiece().isFirstMove()) {
 
-                    if (Player.getCaptureMovesOnSquare(59, legalMovesOpponent).isEmpty() &&
-                        Player.getCaptureMovesOnSquare(58, legalMovesOpponent).isEmpty() &&
-                        Player.getCaptureMovesOnSquare(57, legalMovesOpponent).isEmpty() &&
+                    if (!isSquareAttacked(59) &&
+                        !isSquareAttacked(58) &&
                         rookSquareLong.getPiece().getType() == ROOK) {
 
                         castlingMoves.add(
@@ -0,0 +1,35 @@
+package engine.search;
+
+import engine.board.SearchBoard;
+import engine.players.PlayerColor;
+
+import static engine.board.PieceSquareTables.MAX_PHASE;
+
+/**
+ * Static evaluation of a SearchBoard position: material and Piece positions from the PieceSquareTables, blended
+ * from middlegame to endgame values as Pieces leave the Board ("tapered evaluation"), and the PawnStructure.
+ * The SearchBoard keeps the sums of both tables and the game phase up to date with every Move, and Pawn structures
+ * are cached in a PawnHashTable, so evaluating allocates nothing and rarely loops over Pieces.
+ */
+public enum Evaluation {
+
+    INSTANCE;
+
+    /**
+     * @param board to evaluate.
+     * @param pawnTable of the evaluating thread.
+     * @return score in centipawns, from the point of view of the Player to move (positive is better).
+     */
+    static int evaluate(final SearchBoard board, final PawnHashTable pawnTable) {
+        final PlayerColor color = board.getCurrColor();
+        final PlayerColor opp = color.getOppColor();
+
+        final int middlegame = board.getMiddlegameScore(color) - board.getMiddlegameScore(opp);
+        final int endgame = board.getEndgameScore(color) - board.getEndgameScore(opp);
+        final int phase = Math.min(board.getPhase(), MAX_PHASE); // promotions may add to the initial phase
+        final int pawns = PawnStructure.evaluate(board, pawnTable, phase); // white's point of view
+        return (middlegame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE +
+               (color.isWhite() ? pawns : -pawns);
+    }
+
+}
@@ -0,0 +1,520 @@
+package engine.search;
+
+import engine.board.SearchBoard;
+import engine.moves.MoveBuffer;
+import engine.moves.MoveGenerator;
+import engine.players.PlayerColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static engine.moves.PackedMove.NO_MOVE;
+import static engine.search.Reductions.*;
+import static engine.search.Search.*;
+import static engine.search.TranspositionTable.EXACT;
+import static engine.search.TranspositionTable.LOWER_BOUND;
+import static engine.search.TranspositionTable.NO_ENTRY;
+import static engine.search.TranspositionTable.UPPER_BOUND;
+
+/**
+ * Parallel alpha-beta search with iterative deepening on a ForkJoinPool ("Young Brothers Wait").
+ * At nodes with enough depth left, the first legal Move is searched alone (it's usually the best one, and it sets
+ * the alpha bound); the remaining Moves ("young brothers") are then forked as tasks, each copying the SearchBoard
+ * when it starts (so siblings cancelled by a cutoff or stop cost nothing).
+ * Each finished sibling raises the split point's alpha for siblings that start later; a sibling that fails high
+ * marks its split point, and the sibling tasks below it stop at their next node.
+ * The principal variation is read from the transposition table after each iteration.
+ * The enabled SearchFeatures apply as in the SearchWorker; a forked sibling does its own reduced or zero window
+ * search first, and searches again (in the same task) if it raises the split point's alpha.
+ */
+final class ForkJoinSearch {
+
+    private static final int MIN_SPLIT_DEPTH = 3; // shallower subtrees are searched by one thread
+
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final int maxDepth;
+    private final TimeManager timeManager;
+    private final Map<Thread, long[]> threadNodes = new ConcurrentHashMap<>(); // per pool thread: nodes, next check
+    private final MoveOrderer orderer = new MoveOrderer(); // shared by all tasks (lost updates only cost ordering)
+    private final Map<Thread, QuiescenceSearch> quiescenceSearches = new ConcurrentHashMap<>(); // one per pool thread
+    private final boolean nullMove;
+    private final boolean lateMoveReductions;
+    private final boolean principalVariationSearch;
+    private final boolean aspirationWindows;
+
+    private volatile int completedDepth;
+    private int[] principalVariation = new int[0];
+    private int score;
+
+    ForkJoinSearch(final ForkJoinPool pool, final TranspositionTable table, final SearchLimits limits,
+                   final Set<SearchFeature> features, final TimeManager timeManager) {
+        this.pool = pool;
+        this.table = table;
+        maxDepth = limits.getMaxDepth();
+        this.timeManager = timeManager;
+        nullMove = features.contains(SearchFeature.NULL_MOVE);
+        lateMoveReductions = features.contains(SearchFeature.LATE_MOVE_REDUCTIONS);
+        principalVariationSearch = features.contains(SearchFeature.PRINCIPAL_VARIATION_SEARCH);
+        aspirationWindows = features.contains(SearchFeature.ASPIRATION_WINDOWS);
+    }
+
+    /**
+     * @param root position (not changed).
+     * @param iterationListener called after each completed iteration.
+     */
+    void run(final SearchBoard root, final Runnable iterationListener) {
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            final NodeTask rootTask = searchRoot(root, depth);
+            if (rootTask.aborted) {
+                break; // iteration is incomplete, keep result of previous one
+            }
+
+            score = rootTask.getRawResult();
+            principalVariation = getPrincipalVariation(root.copy(), rootTask.bestMove, depth);
+            completedDepth = depth;
+            iterationListener.run();
+
+            if (principalVariation.length == 0 || isMateScore(score)) {
+                break; // no legal Moves, or a forced mate was found (searching deeper won't change it)
+            }
+            if (!timeManager.startNextIteration(principalVariation[0], getNodes())) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * With aspiration windows, search with a window around the previous score first (as the SearchWorker does).
+     * @return finished (or aborted) root task of the iteration.
+     */
+    private NodeTask searchRoot(final SearchBoard root, final int depth) {
+        if (!aspirationWindows || depth < ASPIRATION_MIN_DEPTH || completedDepth == 0 || isMateScore(score)) {
+            final NodeTask rootTask = new NodeTask(root.copy(), NO_MOVE, depth, -INFINITY, INFINITY, 0, null, 0);
+            pool.invoke(rootTask);
+            return rootTask;
+        }
+
+        int delta = ASPIRATION_WINDOW;
+        int alpha = score - delta;
+        int beta = score + delta;
+        while (true) {
+            final NodeTask rootTask = new NodeTask(root.copy(), NO_MOVE, depth, alpha, beta, 0, null, 0);
+            final int rootScore = pool.invoke(rootTask);
+            if (rootTask.aborted || (rootScore > alpha && rootScore < beta)) {
+                return rootTask;
+            }
+            delta *= 2;
+            if (rootScore <= alpha) {
+                alpha = Math.max(rootScore - delta, -INFINITY);
+            } else {
+                beta = Math.min(rootScore + delta, INFINITY);
+            }
+        }
+    }
+
+    /**
+     * Follow the best Moves stored in the transposition table, as long as they are legal and don't repeat.
+     */
+    private int[] getPrincipalVariation(final SearchBoard board, final int bestMove, final int depth) {
+        final List<Integer> moves = new ArrayList<>();
+        final MoveBuffer buffer = new MoveBuffer(1);
+        int move = bestMove;
+
+        while (move != NO_MOVE && moves.size() < depth && isLegalMove(board, buffer, move)) {
+            moves.add(move);
+            board.makeMove(move);
+            if (board.isRepetition()) {
+                break;
+            }
+            final long entry = table.probe(board.getZobristKey());
+            move = (entry != NO_ENTRY) ? TranspositionTable.getMove(entry) : NO_MOVE;
+        }
+
+        final int[] pv = new int[moves.size()];
+        for (int i = 0; i < pv.length; i++) {
+            pv[i] = moves.get(i);
+        }
+        return pv;
+    }
+
+    private static boolean isLegalMove(final SearchBoard board, final MoveBuffer buffer, final int move) {
+        final int count = MoveGenerator.generateLegalMoves(board, buffer, 0);
+        for (int i = 0; i < count; i++) {
+            if (buffer.get(0, i) == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return quiescence search for a pool thread, stopping as the tasks do (see NodeTask.isAborted).
+     */
+    private QuiescenceSearch createQuiescenceSearch() {
+        return new QuiescenceSearch(orderer, timeManager.getCheckInterval(), () -> {
+            timeManager.checkTime(completedDepth > 0);
+            return completedDepth > 0 && timeManager.isStopped();
+        });
+    }
+
+    long[] getThreadNodes() {
+        final List<Thread> threads = new ArrayList<>(threadNodes.keySet());
+        final long[] nodes = new long[threads.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = threadNodes.get(threads.get(i))[0] + quiescenceSearches.get(threads.get(i)).getNodes();
+        }
+        return nodes;
+    }
+
+    private long getNodes() {
+        long sum = 0;
+        for (final long nodes : getThreadNodes()) {
+            sum += nodes;
+        }
+        return sum;
+    }
+
+    int[] getPrincipalVariation() {return principalVariation;}
+    int getScore() {return score;}
+    int getCompletedDepth() {return completedDepth;}
+
+    /**
+     * Node where the young brothers were forked. Keeps the best score found so far (as alpha of the node), and
+     * sets "cutoff" once any of them fails high, which makes the remaining siblings (and all tasks below them)
+     * give up.
+     */
+    private static final class SplitPoint {
+        private final SplitPoint parent;
+        private volatile int alpha;
+        private volatile boolean cutoff;
+
+        private SplitPoint(final SplitPoint parent, final int alpha) {
+            this.parent = parent;
+            this.alpha = alpha;
+        }
+
+        private synchronized void raiseAlpha(final int score) {
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+    }
+
+    /**
+     * Searches one subtree on its own SearchBoard: a copy of the split point's position with the Move leading to the
+     * subtree made, taken when the task starts (a task cancelled before doesn't copy anything).
+     */
+    @SuppressWarnings("serial") // tasks are never serialized
+    private final class NodeTask extends RecursiveTask<Integer> {
+
+        private final SearchBoard position; // root's copy, or the split point's board (not changed while forked)
+        private final int move; // Move that led to this subtree (from the split point's position), or NO_MOVE at root
+        private final int depth;
+        private final int alpha;
+        private int beta; // may be lowered to the split point's alpha when the task starts
+        private final int ply;
+        private final SplitPoint splitPoint; // null at root
+        private final int reduction; // plies of late move reduction, searched again at full depth if it raises alpha
+
+        private SearchBoard board; // own board of the task, once started
+        private MoveBuffer buffer;
+
+        private long[] nodes; // counters of the thread running this task (nodes, nodes at next check)
+        private QuiescenceSearch quiescence; // of the thread running this task
+        private int bestMove = NO_MOVE;
+        private boolean aborted;
+
+        private NodeTask(final SearchBoard position, final int move, final int depth,
+                         final int alpha, final int beta, final int ply, final SplitPoint splitPoint,
+                         final int reduction) {
+            this.position = position;
+            this.move = move;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.ply = ply;
+            this.splitPoint = splitPoint;
+            this.reduction = reduction;
+        }
+
+        @Override
+        protected Integer compute() {
+            final Thread thread = Thread.currentThread();
+            nodes = threadNodes.computeIfAbsent(thread, key -> new long[2]);
+            quiescence = quiescenceSearches.computeIfAbsent(thread, key -> createQuiescenceSearch());
+            if (isAborted(splitPoint)) { // stopped (or cut off) before this task started
+                aborted = true;
+                return 0;
+            }
+            if (move == NO_MOVE) {
+                board = position;
+            } else {
+                board = position.copy();
+                board.makeMove(move);
+            }
+            buffer = new MoveBuffer(depth + 1);
+            if (splitPoint != null) {
+                beta = Math.min(beta, -splitPoint.alpha); // narrower window if a sibling already raised alpha
+            }
+            final int result = searchSubtree();
+            if (isAborted(splitPoint)) {
+                aborted = true; // result may be incomplete
+            } else if (splitPoint != null) {
+                if (result <= alpha) {
+                    splitPoint.cutoff = true; // parent fails high on this Move, siblings need not finish
+                } else if (result < beta) {
+                    splitPoint.raiseAlpha(-result); // exact score of this Move
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Search a sibling (with reduced depth, and/or a zero window at the parent's alpha) as searchLaterMove() does.
+         * The split point and root tasks have no reduction and are searched with their full window.
+         */
+        private int searchSubtree() {
+            if (splitPoint == null || (reduction == 0 && !principalVariationSearch)) {
+                return negamax(depth, alpha, beta, ply, 0, splitPoint, true);
+            }
+
+            final int windowAlpha = principalVariationSearch ? beta - 1 : alpha;
+            int result = negamax(depth - reduction, windowAlpha, beta, ply, 0, splitPoint, true);
+            if (result < beta && reduction > 0 && !isAborted(splitPoint)) {
+                result = negamax(depth, windowAlpha, beta, ply, 0, splitPoint, true);
+            }
+            if (result > alpha && result < beta && principalVariationSearch && !isAborted(splitPoint)) {
+                result = negamax(depth, alpha, beta, ply, 0, splitPoint, true);
+            }
+            return result;
+        }
+
+        /**
+         * @return true if this task's result is an exact score (not a bound from a lowered beta), or a cutoff.
+         */
+        private boolean isExact() {
+            return getRawResult() < beta;
+        }
+
+        private boolean isAborted(final SplitPoint splitPoint) {
+            if (completedDepth > 0 && timeManager.isStopped()) { // the first iteration is always completed
+                return true;
+            }
+            for (SplitPoint sp = splitPoint; sp != null; sp = sp.parent) {
+                if (sp.cutoff) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Same node search as the SearchWorker's, but splitting nodes with enough depth left.
+         * @param taskPly ply relative to this task's root (index into its own MoveBuffer).
+         * @param isTaskRoot true at this task's root, where the best Move is kept for the parent.
+         */
+        private int negamax(final int depth, int alpha, final int beta, final int ply, final int taskPly,
+                            final SplitPoint splitPoint, final boolean isTaskRoot) {
+            if (++nodes[0] + quiescence.getNodes() >= nodes[1]) {
+                nodes[1] = nodes[0] + quiescence.getNodes() + timeManager.getCheckInterval();
+                timeManager.checkTime(completedDepth > 0);
+            }
+            if (isAborted(splitPoint)) {
+                return 0;
+            }
+
+            if (ply > 0 && (board.isRepetition() || board.getHalfMoveClock() >= FIFTY_MOVES_PLIES)) {
+                return DRAW_SCORE;
+            }
+            if (depth == 0 || ply == MAX_DEPTH) {
+                return quiescence.search(board, alpha, beta, ply);
+            }
+
+            // TRANSPOSITION TABLE
+            final long key = board.getZobristKey();
+            final long entry = table.probe(key);
+            int hashMove = NO_MOVE;
+            if (entry != NO_ENTRY) {
+                hashMove = TranspositionTable.getMove(entry);
+                if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+                    final int entryScore = TranspositionTable.getScore(entry, ply);
+                    final int bound = TranspositionTable.getBound(entry);
+                    if (bound == EXACT ||
+                        (bound == LOWER_BOUND && entryScore >= beta) ||
+                        (bound == UPPER_BOUND && entryScore <= alpha)) {
+                        return entryScore;
+                    }
+                }
+            }
+
+            final PlayerColor color = board.getCurrColor();
+            final boolean inCheck = board.isKingAttacked(color);
+            final boolean isPvNode = beta - alpha > 1;
+
+            // NULL MOVE (not twice in a row, i.e. not if last Move was a null move)
+            if (nullMove && !isPvNode && !inCheck && depth >= NULL_MOVE_MIN_DEPTH && board.getLastMove() != NO_MOVE &&
+                board.hasNonPawnMaterial(color) && Evaluation.evaluate(board, quiescence.getPawnTable()) >= beta) {
+                board.makeNullMove();
+                final int nullScore = -negamax(depth - 1 - getNullMoveReduction(depth), -beta, -beta + 1, ply + 1,
+                                               taskPly + 1, splitPoint, false);
+                board.unmakeNullMove();
+                if (isAborted(splitPoint)) {
+                    return 0;
+                }
+                if (nullScore >= beta) {
+                    return isMateScore(nullScore) ? beta : nullScore;
+                }
+            }
+
+            MoveGenerator.generateMoves(board, buffer, taskPly);
+            orderer.scoreMoves(buffer, taskPly, ply, hashMove, board.getLastMove(), color);
+
+            final int originalAlpha = alpha;
+            int bestScore = -INFINITY;
+            int bestMove = NO_MOVE;
+            int legalMoves = 0;
+            for (int i = 0; i < buffer.size(taskPly); i++) {
+                final int move = orderer.pickMove(buffer, taskPly, i);
+
+                if (legalMoves > 0 && depth >= MIN_SPLIT_DEPTH) { // YOUNG BROTHERS (first Move is searched)
+                    final NodeTask best = searchSiblings(i, taskPly, depth, alpha, beta, ply, splitPoint,
+                                                         legalMoves, inCheck);
+                    if (isAborted(splitPoint)) {
+                        return 0;
+                    }
+                    if (best != null && -best.getRawResult() > bestScore) {
+                        bestScore = -best.getRawResult();
+                        bestMove = best.move;
+                    }
+                    break;
+                }
+
+                board.makeMove(move);
+                if (board.isKingAttacked(color)) { // pseudo-legal Move left the own King attacked
+                    board.unmakeMove();
+                    continue;
+                }
+                legalMoves++;
+
+                final int moveScore = (legalMoves == 1)
+                                      ? -negamax(depth - 1, -beta, -alpha, ply + 1, taskPly + 1, splitPoint, false)
+                                      : searchLaterMove(move, depth, alpha, beta, ply, taskPly, splitPoint, legalMoves,
+                                                        inCheck);
+                board.unmakeMove();
+                if (isAborted(splitPoint)) {
+                    return 0;
+                }
+
+                if (moveScore > bestScore) {
+                    bestScore = moveScore;
+                    bestMove = move;
+                    if (moveScore > alpha) {
+                        alpha = moveScore;
+                        if (moveScore >= beta) {
+                            if (MoveOrderer.isQuiet(move)) {
+                                orderer.updateCutoff(move, ply, depth, board.getLastMove(), color);
+                            }
+                            break; // opponent avoids this position ("beta cutoff")
+                        }
+                    }
+                }
+            }
+
+            if (legalMoves == 0) { // checkmate (prefer the shortest mate), or stalemate
+                return board.isKingAttacked(color) ? -MATE_SCORE + ply : DRAW_SCORE;
+            }
+
+            if (isTaskRoot) {
+                this.bestMove = bestMove;
+            }
+            final int bound = (bestScore <= originalAlpha) ? UPPER_BOUND : (bestScore >= beta) ? LOWER_BOUND : EXACT;
+            table.store(key, (bound == UPPER_BOUND) ? NO_MOVE : bestMove, bestScore, depth, bound, ply);
+            return bestScore;
+        }
+
+        /**
+         * Search a Move after the first one, as in the SearchWorker (already performed on the board).
+         */
+        private int searchLaterMove(final int move, final int depth, final int alpha, final int beta, final int ply,
+                                    final int taskPly, final SplitPoint splitPoint, final int moveNumber,
+                                    final boolean inCheck) {
+            final int reduction = getReduction(board, move, depth, moveNumber, inCheck);
+            final int windowBeta = principalVariationSearch ? alpha + 1 : beta;
+            int moveScore = -negamax(depth - 1 - reduction, -windowBeta, -alpha, ply + 1, taskPly + 1, splitPoint,
+                                     false);
+            if (moveScore > alpha && reduction > 0) {
+                moveScore = -negamax(depth - 1, -windowBeta, -alpha, ply + 1, taskPly + 1, splitPoint, false);
+            }
+            if (moveScore > alpha && moveScore < beta && principalVariationSearch) {
+                moveScore = -negamax(depth - 1, -beta, -alpha, ply + 1, taskPly + 1, splitPoint, false);
+            }
+            return moveScore;
+        }
+
+        /**
+         * @param child position after the Move.
+         * @return late move reduction of the Move, 0 if it's not reduced.
+         */
+        private int getReduction(final SearchBoard child, final int move, final int depth, final int moveNumber,
+                                 final boolean inCheck) {
+            if (lateMoveReductions && depth >= LATE_MOVE_MIN_DEPTH && moveNumber > LATE_MOVE_MIN_MOVES && !inCheck &&
+                MoveOrderer.isQuiet(move) && !child.isKingAttacked(child.getCurrColor())) { // not if Move gives check
+                return getLateMoveReduction(depth, moveNumber);
+            }
+            return 0;
+        }
+
+        /**
+         * Fork a task for each remaining legal Move, with the window set by the first Move (and narrowed by siblings
+         * that finished before), and join them in Move order.
+         * @return finished task with the best result (lowest score for its Player, exact results first on ties),
+         * or null if none.
+         */
+        private NodeTask searchSiblings(final int first, final int taskPly, final int depth, final int alpha,
+                                        final int beta, final int ply, final SplitPoint parent, final int searchedMoves,
+                                        final boolean inCheck) {
+            final SplitPoint splitPoint = new SplitPoint(parent, alpha);
+            final PlayerColor color = board.getCurrColor();
+            final List<NodeTask> tasks = new ArrayList<>();
+
+            for (int i = first; i < buffer.size(taskPly); i++) {
+                final int move = orderer.pickMove(buffer, taskPly, i);
+                board.makeMove(move);
+                if (!board.isKingAttacked(color)) {
+                    final int moveNumber = searchedMoves + tasks.size() + 1;
+                    final int reduction = getReduction(board, move, depth, moveNumber, inCheck);
+                    tasks.add(new NodeTask(board, move, depth - 1, -beta, -alpha, ply + 1, splitPoint, reduction));
+                }
+                board.unmakeMove();
+            }
+            for (int i = tasks.size() - 1; i > 0; i--) {
+                tasks.get(i).fork(); // forked last first, so the owning thread takes the first ones itself
+            }
+
+            NodeTask best = null;
+            for (int i = 0; i < tasks.size(); i++) {
+                final NodeTask task = tasks.get(i);
+                if (i == 0) {
+                    task.invoke();
+                } else if (isAborted(splitPoint) && task.cancel(false)) {
+                    continue; // not started yet, no need to run (after a cutoff or stop)
+                } else {
+                    task.join();
+                }
+                if (!task.aborted && (best == null || task.getRawResult() < best.getRawResult() ||
+                                      (task.getRawResult() == best.getRawResult() && task.isExact() && !best.isExact()))) {
+                    best = task;
+                }
+            }
+            return best;
+        }
+
+    }
+
+}
@@ -0,0 +1,152 @@
+package engine.search;
+
+import engine.moves.MoveBuffer;
+import engine.pieces.Piece.PieceType;
+import engine.players.PlayerColor;
+
+import static engine.board.BoardUtilities.SQUARES_ON_BOARD;
+import static engine.moves.PackedMove.*;
+import static engine.pieces.Piece.PieceType.KING;
+import static engine.pieces.Piece.PieceType.QUEEN;
+import static engine.search.Search.MAX_DEPTH;
+
+/**
+ * Orders the Moves of a node, so alpha-beta searches the best Moves first and cuts off sooner:
+ * the hash Move, then captures (and Queen promotions) by MVV-LVA ("most valuable victim, least valuable attacker"),
+ * then the killer Moves of the ply, then the counter Move of the opponent's last Move, then the other quiet Moves by
+ * their history score.
+ * Killer Moves, history and counter Moves are learned from quiet Moves causing beta cutoffs; all tables are
+ * primitive arrays, indexed by ply, color and Squares.
+ *
+ * Moves are scored once per node, then picked best first (selection sort), since a cutoff often comes early and
+ * makes sorting the rest unnecessary.
+ */
+final class MoveOrderer {
+
+    // SCORE TIERS (history scores stay below COUNTER_SCORE)
+    private static final int HASH_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27; // first killer, second killer is one less
+    private static final int COUNTER_SCORE = 1 << 26;
+    private static final int HISTORY_MAX = 1 << 20; // all history scores are halved when one gets above
+
+    private static final int KILLERS_PER_PLY = 2;
+    private static final int TYPES = PieceType.values().length;
+    private static final int[] MVV_LVA = new int[TYPES * TYPES]; // indexed by victim and attacker type ordinals
+
+    static {
+        for (final PieceType victim : PieceType.values()) {
+            for (final PieceType attacker : PieceType.values()) {
+                final int attackerValue = (attacker == KING) ? QUEEN.getValue() + 100 : attacker.getValue();
+                MVV_LVA[victim.ordinal() * TYPES + attacker.ordinal()] = 10 * victim.getValue() - attackerValue / 100;
+            }
+        }
+    }
+
+    private final int[] killers = new int[(MAX_DEPTH + 1) * KILLERS_PER_PLY];
+    private final int[] history = new int[2 * SQUARES_ON_BOARD * SQUARES_ON_BOARD]; // color, from, to
+    private final int[] counterMoves = new int[2 * TYPES * SQUARES_ON_BOARD]; // color, moved type, to (of last Move)
+
+    /**
+     * Score the generated Moves of a node (see pickMove).
+     * @param bufferPly list of the buffer holding the Moves (usually the ply).
+     * @param ply distance of the node from the root.
+     * @param hashMove best Move from the transposition table (or NO_MOVE).
+     * @param lastMove opponent's Move that led to this node (or NO_MOVE).
+     */
+    void scoreMoves(final MoveBuffer buffer, final int bufferPly, final int ply, final int hashMove,
+                    final int lastMove, final PlayerColor color) {
+        final int[] moves = buffer.getMoves(bufferPly);
+        final int[] scores = buffer.getScores(bufferPly);
+        final int killer1 = killers[ply * KILLERS_PER_PLY];
+        final int killer2 = killers[ply * KILLERS_PER_PLY + 1];
+        final int counterMove = (lastMove != NO_MOVE) ? counterMoves[getCounterIndex(lastMove, color.getOppColor())]
+                                                      : NO_MOVE;
+        final int historyOffset = color.ordinal() * SQUARES_ON_BOARD * SQUARES_ON_BOARD;
+
+        for (int i = 0; i < buffer.size(bufferPly); i++) {
+            final int move = moves[i];
+            if (move == hashMove) {
+                scores[i] = HASH_SCORE;
+            } else if (isCapture(move) || getPromotionType(move) == QUEEN) {
+                scores[i] = CAPTURE_SCORE + getCaptureScore(move);
+            } else if (move == killer1) {
+                scores[i] = KILLER_SCORE;
+            } else if (move == killer2) {
+                scores[i] = KILLER_SCORE - 1;
+            } else if (move == counterMove) {
+                scores[i] = COUNTER_SCORE;
+            } else {
+                scores[i] = history[historyOffset + getFrom(move) * SQUARES_ON_BOARD + getTo(move)];
+            }
+        }
+    }
+
+    private static int getCaptureScore(final int move) {
+        final PieceType captured = getCapturedType(move);
+        final int promotionScore = isPromotion(move) ? getPromotionType(move).getValue() : 0;
+        return (captured != null) ? MVV_LVA[captured.ordinal() * TYPES + getMovedType(move).ordinal()] + promotionScore
+                                  : promotionScore;
+    }
+
+    /**
+     * Swap the best scored Move of the remaining ones (from index on) to index.
+     * @return Move at index.
+     */
+    int pickMove(final MoveBuffer buffer, final int bufferPly, final int index) {
+        final int[] moves = buffer.getMoves(bufferPly);
+        final int[] scores = buffer.getScores(bufferPly);
+        int best = index;
+        for (int i = index + 1; i < buffer.size(bufferPly); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            final int move = moves[best];
+            final int score = scores[best];
+            moves[best] = moves[index];
+            scores[best] = scores[index];
+            moves[index] = move;
+            scores[index] = score;
+        }
+        return moves[index];
+    }
+
+    /**
+     * Learn from a quiet Move (no capture or Queen promotion) that caused a beta cutoff.
+     * @param lastMove opponent's Move that led to the node (or NO_MOVE).
+     */
+    void updateCutoff(final int move, final int ply, final int depth, final int lastMove, final PlayerColor color) {
+        final int first = ply * KILLERS_PER_PLY;
+        if (killers[first] != move) {
+            killers[first + 1] = killers[first];
+            killers[first] = move;
+        }
+
+        if (lastMove != NO_MOVE) {
+            counterMoves[getCounterIndex(lastMove, color.getOppColor())] = move;
+        }
+
+        final int index = color.ordinal() * SQUARES_ON_BOARD * SQUARES_ON_BOARD +
+                          getFrom(move) * SQUARES_ON_BOARD + getTo(move);
+        history[index] += depth * depth; // deeper cutoffs save more nodes
+        if (history[index] > HISTORY_MAX) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] /= 2;
+            }
+        }
+    }
+
+    /**
+     * @return true (if the Move is ordered by the killer/counter/history tables, not by MVV-LVA).
+     */
+    static boolean isQuiet(final int move) {
+        return !isCapture(move) && getPromotionType(move) != QUEEN;
+    }
+
+    private static int getCounterIndex(final int lastMove, final PlayerColor lastColor) {
+        return (lastColor.ordinal() * TYPES + getMovedType(lastMove).ordinal()) * SQUARES_ON_BOARD + getTo(lastMove);
+    }
+
+}
@@ -0,0 +1,58 @@
+package engine.search;
+
+/**
+ * Small hash table of evaluated Pawn structures, keyed by the SearchBoard's Pawn key. Pawns move rarely compared to
+ * the other Pieces, so most evaluated positions share their Pawn structure with one evaluated before, and the Pawn
+ * terms are looked up instead of computed again.
+ *
+ * Each slot holds one entry (always replaced), kept in primitive arrays. A table belongs to one thread.
+ */
+final class PawnHashTable {
+
+    static final int DEFAULT_ENTRIES = 1 << 14; // 16K entries, 384 kB
+
+    private final long[] keys;
+    private final int[] middlegameScores; // from white's point of view
+    private final int[] endgameScores;
+    private final long[] passedPawns; // mask of passed Pawns of both colors
+    private final int mask;
+
+    PawnHashTable() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    /**
+     * @param entries number of entries (a power of two).
+     */
+    PawnHashTable(final int entries) {
+        keys = new long[entries];
+        middlegameScores = new int[entries];
+        endgameScores = new int[entries];
+        passedPawns = new long[entries];
+        mask = entries - 1;
+        keys[0] = 1L; // slot 0 would otherwise "contain" the key 0 (no Pawns) without ever being stored
+    }
+
+    /**
+     * @param pawnKey Zobrist key of the Pawns.
+     * @return slot of the Pawn structure, to read if isStored(), or else to store into.
+     */
+    int getSlot(final long pawnKey) {
+        return (int) pawnKey & mask;
+    }
+
+    boolean isStored(final int slot, final long pawnKey) {return keys[slot] == pawnKey;}
+
+    void store(final int slot, final long pawnKey, final int middlegameScore, final int endgameScore,
+               final long passed) {
+        keys[slot] = pawnKey;
+        middlegameScores[slot] = middlegameScore;
+        endgameScores[slot] = endgameScore;
+        passedPawns[slot] = passed;
+    }
+
+    int getMiddlegameScore(final int slot) {return middlegameScores[slot];}
+    int getEndgameScore(final int slot) {return endgameScores[slot];}
+    long getPassedPawns(final int slot) {return passedPawns[slot];}
+
+}
@@ -0,0 +1,155 @@
+package engine.search;
+
+import engine.board.BoardUtilities;
+import engine.board.SearchBoard;
+import engine.players.PlayerColor;
+
+import static engine.board.BitBoard.EMPTY_MASK;
+import static engine.board.BitBoard.getFirstSquare;
+import static engine.board.BitBoard.getSquareMask;
+import static engine.board.BoardUtilities.SQUARES_ON_BOARD;
+import static engine.board.BoardUtilities.SQUARES_ON_ROW;
+import static engine.board.PieceSquareTables.MAX_PHASE;
+import static engine.pieces.Piece.PieceType.KING;
+import static engine.pieces.Piece.PieceType.PAWN;
+import static engine.players.PlayerColor.BLACK;
+import static engine.players.PlayerColor.WHITE;
+
+/**
+ * Pawn structure terms of the evaluation: doubled, isolated and passed Pawns depend on the Pawns only, and are
+ * cached in a PawnHashTable. Terms that also depend on other Pieces (the Pawn shield in front of a King, the
+ * Kings' distance to passed Pawns) are added from the cached passed Pawn mask on every evaluation.
+ * Scores are middlegame and endgame values, like the PieceSquareTables, from white's point of view.
+ */
+enum PawnStructure {
+
+    INSTANCE;
+
+    private static final int DOUBLED_MIDDLEGAME = -10; // per Pawn on the same column as another own Pawn
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -10; // per Pawn without own Pawns on the neighboring columns
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int[] PASSED_MIDDLEGAME = {0, 5, 10, 20, 35, 60}; // by rows advanced from the start row
+    private static final int[] PASSED_ENDGAME = {10, 15, 25, 45, 75, 120};
+    private static final int PASSED_KING_DISTANCE = 4; // endgame, per Square the opponent's King is further away
+    private static final int SHIELD_MIDDLEGAME = 10; // per own Pawn in front of a King on its first two rows
+
+    private static final long[] COLUMNS = new long[SQUARES_ON_ROW];
+    private static final long[] NEIGHBOR_COLUMNS = new long[SQUARES_ON_ROW];
+    private static final long[][] PASSED_SPANS = new long[2][SQUARES_ON_BOARD]; // indexed by PlayerColor ordinal
+    private static final long[][] SHIELDS = new long[2][SQUARES_ON_BOARD];
+
+    static {
+        for (int pos = 0; pos < SQUARES_ON_BOARD; pos++) {
+            COLUMNS[BoardUtilities.getColumn(pos)] |= getSquareMask(pos);
+        }
+        for (int col = 0; col < SQUARES_ON_ROW; col++) {
+            NEIGHBOR_COLUMNS[col] = ((col > 0) ? COLUMNS[col - 1] : EMPTY_MASK) |
+                                    ((col < SQUARES_ON_ROW - 1) ? COLUMNS[col + 1] : EMPTY_MASK);
+        }
+        for (int pos = 0; pos < SQUARES_ON_BOARD; pos++) {
+            final int col = BoardUtilities.getColumn(pos);
+            final int row = BoardUtilities.getRow(pos);
+            for (int other = 0; other < SQUARES_ON_BOARD; other++) {
+                final int otherRow = BoardUtilities.getRow(other);
+                if (Math.abs(BoardUtilities.getColumn(other) - col) > 1) {
+                    continue;
+                }
+                // Squares in front of a Pawn, on its own and the neighboring columns (row 0 is the eighth rank)
+                if (otherRow < row) {
+                    PASSED_SPANS[WHITE.ordinal()][pos] |= getSquareMask(other);
+                } else if (otherRow > row) {
+                    PASSED_SPANS[BLACK.ordinal()][pos] |= getSquareMask(other);
+                }
+                // up to two rows in front of a King
+                if (otherRow < row && otherRow >= row - 2) {
+                    SHIELDS[WHITE.ordinal()][pos] |= getSquareMask(other);
+                } else if (otherRow > row && otherRow <= row + 2) {
+                    SHIELDS[BLACK.ordinal()][pos] |= getSquareMask(other);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param board to evaluate.
+     * @param table to look up the Pawn terms in (and store them into, if missing).
+     * @param phase game phase (as in PieceSquareTables, at most MAX_PHASE).
+     * @return score of Pawn structure and King safety, tapered by phase, from white's point of view.
+     */
+    static int evaluate(final SearchBoard board, final PawnHashTable table, final int phase) {
+        final long pawnKey = board.getPawnKey();
+        final int slot = table.getSlot(pawnKey);
+        if (!table.isStored(slot, pawnKey)) {
+            storePawnTerms(board, table, slot, pawnKey);
+        }
+
+        int middlegame = table.getMiddlegameScore(slot);
+        int endgame = table.getEndgameScore(slot);
+
+        final int whiteKing = getFirstSquare(board.getPieces(WHITE, KING));
+        final int blackKing = getFirstSquare(board.getPieces(BLACK, KING));
+        middlegame += SHIELD_MIDDLEGAME * (getShieldPawns(board, WHITE, whiteKing) -
+                                           getShieldPawns(board, BLACK, blackKing));
+
+        long passed = table.getPassedPawns(slot);
+        final long whitePawns = board.getPieces(WHITE, PAWN);
+        while (passed != EMPTY_MASK) {
+            final int pos = getFirstSquare(passed);
+            passed &= passed - 1;
+            final int whiteCloser = BoardUtilities.getDistance(blackKing, pos) -
+                                    BoardUtilities.getDistance(whiteKing, pos);
+            endgame += ((whitePawns & getSquareMask(pos)) != 0) ? PASSED_KING_DISTANCE * whiteCloser
+                                                                : -PASSED_KING_DISTANCE * whiteCloser;
+        }
+
+        return (middlegame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
+    }
+
+    private static int getShieldPawns(final SearchBoard board, final PlayerColor color, final int kingPos) {
+        final int row = BoardUtilities.getRow(kingPos);
+        final boolean onFirstRows = color.isWhite() ? row >= 6 : row <= 1;
+        return onFirstRows ? Long.bitCount(SHIELDS[color.ordinal()][kingPos] & board.getPieces(color, PAWN)) : 0;
+    }
+
+    private static void storePawnTerms(final SearchBoard board, final PawnHashTable table, final int slot,
+                                       final long pawnKey) {
+        final long whitePawns = board.getPieces(WHITE, PAWN);
+        final long blackPawns = board.getPieces(BLACK, PAWN);
+        int middlegame = 0;
+        int endgame = 0;
+        long passed = EMPTY_MASK;
+
+        for (final PlayerColor color : PlayerColor.values()) {
+            final long own = color.isWhite() ? whitePawns : blackPawns;
+            final long opp = color.isWhite() ? blackPawns : whitePawns;
+            final int sign = color.isWhite() ? 1 : -1;
+
+            long pawns = own;
+            while (pawns != EMPTY_MASK) {
+                final int pos = getFirstSquare(pawns);
+                pawns &= pawns - 1;
+                final int col = BoardUtilities.getColumn(pos);
+
+                if (Long.bitCount(own & COLUMNS[col]) > 1) {
+                    middlegame += sign * DOUBLED_MIDDLEGAME;
+                    endgame += sign * DOUBLED_ENDGAME;
+                }
+                if ((own & NEIGHBOR_COLUMNS[col]) == EMPTY_MASK) {
+                    middlegame += sign * ISOLATED_MIDDLEGAME;
+                    endgame += sign * ISOLATED_ENDGAME;
+                }
+                if ((opp & PASSED_SPANS[color.ordinal()][pos]) == EMPTY_MASK &&
+                    (own & COLUMNS[col] & PASSED_SPANS[color.ordinal()][pos]) == EMPTY_MASK) { // frontmost only
+                    final int row = BoardUtilities.getRow(pos);
+                    final int advanced = color.isWhite() ? 6 - row : row - 1; // rows from the start row
+                    middlegame += sign * PASSED_MIDDLEGAME[advanced];
+                    endgame += sign * PASSED_ENDGAME[advanced];
+                    passed |= getSquareMask(pos);
+                }
+            }
+        }
+        table.store(slot, pawnKey, middlegame, endgame, passed);
+    }
+
+}
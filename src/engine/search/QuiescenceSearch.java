@@ -0,0 +1,133 @@
+package engine.search;
+
+import engine.board.SearchBoard;
+import engine.moves.MoveBuffer;
+import engine.moves.MoveGenerator;
+import engine.players.PlayerColor;
+
+import java.util.function.BooleanSupplier;
+
+import static engine.moves.PackedMove.*;
+import static engine.pieces.Piece.PieceType.PAWN;
+import static engine.search.Search.*;
+
+/**
+ * Search at the horizon of the main search, so it doesn't evaluate positions in the middle of a capture sequence:
+ * only captures and Queen promotions are searched, until the position is "quiet".
+ * The Player to move may always "stand pat" (keep the static evaluation, since some quiet Move is usually at least as
+ * good), and captures that can't raise alpha even when winning the captured Piece ("delta pruning"), or that lose
+ * material by static exchange evaluation, are skipped. In check, all Moves are searched instead (no standing pat),
+ * so mates at the horizon are found.
+ *
+ * One instance per thread: it searches on the given SearchBoard with its own MoveBuffer and PawnHashTable.
+ * Like the main search, it looks at the clock and stop flag every TimeManager.getCheckInterval() nodes (through its
+ * owner's stop check), so a stop() isn't delayed by a long capture sequence.
+ */
+final class QuiescenceSearch {
+
+    private static final int DELTA_MARGIN = 200; // positional gain a capture may have beyond the captured material
+
+    private final MoveBuffer buffer = new MoveBuffer(MAX_DEPTH + 1);
+    private final PawnHashTable pawnTable = new PawnHashTable();
+    private final MoveOrderer orderer;
+    private final long checkInterval;
+    private final BooleanSupplier stopCheck;
+    private long nodes;
+    private long nextCheck; // nodes at which to call the stop check next
+    private boolean stopped;
+
+    /**
+     * @param orderer of the owning search.
+     * @param checkInterval nodes between stop checks.
+     * @param stopCheck of the owning search (e.g. looking at the clock): true if the search is stopped.
+     */
+    QuiescenceSearch(final MoveOrderer orderer, final long checkInterval, final BooleanSupplier stopCheck) {
+        this.orderer = orderer;
+        this.checkInterval = checkInterval;
+        this.stopCheck = stopCheck;
+        nextCheck = checkInterval;
+    }
+
+    /**
+     * @return score of the position for the Player to move, fail-soft as in the main search (0 once stopped).
+     */
+    int search(final SearchBoard board, int alpha, final int beta, final int ply) {
+        if (nodes >= nextCheck) {
+            nextCheck = nodes + checkInterval;
+            stopped = stopCheck.getAsBoolean();
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (ply == MAX_DEPTH) {
+            return Evaluation.evaluate(board, pawnTable);
+        }
+
+        final PlayerColor color = board.getCurrColor();
+        final boolean inCheck = board.isKingAttacked(color);
+        int standPat = -INFINITY;
+        int bestScore = -INFINITY;
+        if (inCheck) {
+            MoveGenerator.generateMoves(board, buffer, ply);
+        } else {
+            standPat = Evaluation.evaluate(board, pawnTable);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            alpha = Math.max(alpha, standPat);
+            bestScore = standPat;
+            MoveGenerator.generateCaptures(board, buffer, ply);
+        }
+        orderer.scoreMoves(buffer, ply, ply, NO_MOVE, NO_MOVE, color);
+
+        int legalMoves = 0;
+        for (int i = 0; i < buffer.size(ply); i++) {
+            final int move = orderer.pickMove(buffer, ply, i);
+            if (!inCheck) {
+                if (standPat + getMaterialGain(move) + DELTA_MARGIN <= alpha) {
+                    continue; // DELTA PRUNING
+                }
+                if (!StaticExchange.isAtLeast(board, move, 0)) {
+                    continue; // losing capture
+                }
+            }
+
+            board.makeMove(move);
+            if (board.isKingAttacked(color)) {
+                board.unmakeMove();
+                continue;
+            }
+            legalMoves++;
+            nodes++;
+            final int moveScore = -search(board, -beta, -alpha, ply + 1);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (moveScore > bestScore) {
+                bestScore = moveScore;
+                if (moveScore > alpha) {
+                    alpha = moveScore;
+                    if (moveScore >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (inCheck && legalMoves == 0) {
+            return -MATE_SCORE + ply;
+        }
+        return bestScore;
+    }
+
+    private static int getMaterialGain(final int move) {
+        final int captured = isCapture(move) ? getCapturedType(move).getValue() : 0;
+        return isPromotion(move) ? captured + getPromotionType(move).getValue() - PAWN.getValue() : captured;
+    }
+
+    long getNodes() {return nodes;} // positions searched below the main search's leaves
+    PawnHashTable getPawnTable() {return pawnTable;}
+
+}
@@ -0,0 +1,49 @@
+package engine.search;
+
+import engine.moves.MoveBuffer;
+
+import static engine.search.Search.MAX_DEPTH;
+
+/**
+ * Depth reductions of the selective search (see SearchFeature), shared by both schedulers.
+ */
+enum Reductions {
+
+    INSTANCE;
+
+    static final int NULL_MOVE_MIN_DEPTH = 3;
+    static final int LATE_MOVE_MIN_DEPTH = 3;
+    static final int LATE_MOVE_MIN_MOVES = 3; // Moves searched at full depth, before reducing the later ones
+    static final int ASPIRATION_MIN_DEPTH = 4; // iterations before have unstable scores
+    static final int ASPIRATION_WINDOW = 25; // half width, in centipawns
+
+    private static final int[][] LATE_MOVE_REDUCTIONS = new int[MAX_DEPTH + 1][MoveBuffer.MAX_MOVES];
+
+    static {
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            for (int moves = 1; moves < MoveBuffer.MAX_MOVES; moves++) { // grows slowly with depth and Move count
+                LATE_MOVE_REDUCTIONS[depth][moves] = (int) (0.75 + Math.log(depth) * Math.log(moves) / 2.25);
+            }
+        }
+    }
+
+    /**
+     * @param depth remaining at the node.
+     * @param moveNumber of the Move in search order (counting legal Moves from 1).
+     * @return plies to reduce the Move's search by (leaves at least one ply).
+     */
+    static int getLateMoveReduction(final int depth, final int moveNumber) {
+        final int row = Math.min(depth, MAX_DEPTH);
+        final int column = Math.min(moveNumber, MoveBuffer.MAX_MOVES - 1);
+        return Math.min(LATE_MOVE_REDUCTIONS[row][column], depth - 1);
+    }
+
+    /**
+     * @param depth remaining at the node.
+     * @return plies to reduce the null move search by, in addition to the ply of the null move.
+     */
+    static int getNullMoveReduction(final int depth) {
+        return (depth > 6) ? 3 : 2;
+    }
+
+}
@@ -0,0 +1,217 @@
+package engine.search;
+
+import engine.board.Board;
+import engine.board.SearchBoard;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Finds the best Move of the current Player on a Board, searching a game tree of packed Moves on a SearchBoard copy
+ * (see SearchWorker). The Board itself is never changed.
+ * With more than one thread, the work is spread by the SearchScheduler: by default, helper threads search the same
+ * root and share the transposition table ("Lazy SMP"), and the calling thread runs the main search and reports its
+ * result; with FORK_JOIN, the tree is split between the threads of a ForkJoinPool (see ForkJoinSearch).
+ * The TimeManager of each search budgets its time, from the limits and the node rate measured by the previous
+ * search; a search can also be stopped from another thread.
+ */
+public final class Search {
+
+    public static final int MAX_DEPTH = 64; // max plies from the root, incl. the search depth
+    public static final int MATE_SCORE = 32_000; // score of being checkmated at the root (less per ply further away)
+    public static final int INFINITY = MATE_SCORE + 1; // above any reachable score
+    public static final int DRAW_SCORE = 0;
+    public static final int FIFTY_MOVES_PLIES = 100; // plies without capture or Pawn move, that make a draw
+
+    private static final long MIN_MEASURE_MILLIS = 50; // search time needed to measure the node rate
+    private static final Runnable NO_LISTENER = () -> {};
+
+    private final TranspositionTable table; // kept between searches (e.g. of the next Move in a game)
+    private final int threads;
+    private volatile SearchScheduler scheduler = SearchScheduler.LAZY_SMP;
+    private volatile Set<SearchFeature> features = EnumSet.allOf(SearchFeature.class); // replaced, never changed
+    private ForkJoinPool pool; // created on first FORK_JOIN search, then reused
+    private volatile TimeManager timeManager; // of the running (or last) search
+    private volatile long nodesPerSecond; // per thread, measured by the last search (0 if none)
+    private volatile Consumer<SearchResult> iterationListener; // null if none
+
+    public Search() {
+        this(TranspositionTable.DEFAULT_SIZE_MB, 1);
+    }
+
+    /**
+     * @param hashSizeMb memory budget of the transposition table in megabytes.
+     * @param threads number of searching threads (incl. the calling thread), e.g. the number of cores.
+     */
+    public Search(final int hashSizeMb, final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Search needs at least one thread!");
+        }
+        table = new TranspositionTable(hashSizeMb);
+        this.threads = threads;
+    }
+
+    /**
+     * @param board to search the current Player's best Move on.
+     * @param limits of search depth and/or time.
+     * @return best Move, principal variation and score of the deepest completed iteration.
+     */
+    public SearchResult search(final Board board, final SearchLimits limits) {
+        return search(SearchBoard.fromBoard(board), board, limits);
+    }
+
+    /**
+     * Search a SearchBoard, e.g. set up from a FEN with the Moves of a game made on it (so the search knows the
+     * positions before, and detects their repetitions). The SearchBoard itself is never changed.
+     * @param board to search the current Player's best Move on.
+     * @param limits of search depth and/or time.
+     * @return best Move as packed Move (the result has no Move of a Board), principal variation and score of the
+     * deepest completed iteration.
+     */
+    public SearchResult search(final SearchBoard board, final SearchLimits limits) {
+        return search(board, null, limits);
+    }
+
+    private SearchResult search(final SearchBoard root, final Board board, final SearchLimits limits) {
+        final long startTime = System.nanoTime();
+        final TimeManager manager = new TimeManager(limits, startTime, (nodesPerSecond > 0) ? nodesPerSecond
+                                                                       : TimeManager.DEFAULT_NODES_PER_SECOND);
+        timeManager = manager;
+        table.newSearch();
+        final SearchResult result = (scheduler == SearchScheduler.FORK_JOIN)
+                                    ? searchForkJoin(root, board, limits, manager, startTime)
+                                    : searchLazySmp(root, board, limits, manager, startTime);
+        if (result.getTimeMillis() >= MIN_MEASURE_MILLIS) { // shorter searches measure mostly their setup
+            nodesPerSecond = result.getNodesPerSecond() / threads;
+        }
+        return result;
+    }
+
+    /**
+     * Stops the running search (e.g. from another thread than the searching one): it returns the result of the last
+     * completed iteration within a few milliseconds (but completes the first iteration).
+     */
+    public void stop() {
+        final TimeManager manager = timeManager;
+        if (manager != null) {
+            manager.stop();
+        }
+    }
+
+    private SearchResult searchLazySmp(final SearchBoard root, final Board board, final SearchLimits limits,
+                                       final TimeManager manager, final long startTime) {
+        final Consumer<SearchResult> listener = iterationListener;
+        final SearchWorker[] workers = new SearchWorker[threads];
+        final Thread[] helpers = new Thread[threads - 1];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new SearchWorker(i, root.copy(), table, limits, features, manager);
+        }
+        for (int i = 0; i < helpers.length; i++) {
+            final SearchWorker helper = workers[i + 1];
+            helpers[i] = new Thread(() -> helper.run(NO_LISTENER), "search-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+
+        workers[0].run((listener != null) ? () -> listener.accept(createResult(board, workers, startTime))
+                                          : NO_LISTENER);
+        manager.stop(); // main search is done, helpers stop at their next check
+        joinHelpers(helpers);
+        return createResult(board, workers, startTime);
+    }
+
+    private static SearchResult createResult(final Board board, final SearchWorker[] workers, final long startTime) {
+        final long[] threadNodes = new long[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            threadNodes[i] = workers[i].getNodes(); // of helpers, only approximate while they are running
+        }
+        final SearchWorker main = workers[0];
+        return new SearchResult(board, main.getPrincipalVariation(), main.getScore(),
+                                main.getCompletedDepth(), threadNodes, System.nanoTime() - startTime);
+    }
+
+    private SearchResult searchForkJoin(final SearchBoard root, final Board board, final SearchLimits limits,
+                                        final TimeManager manager, final long startTime) {
+        final Consumer<SearchResult> listener = iterationListener;
+        final ForkJoinSearch search = new ForkJoinSearch(getPool(), table, limits, features, manager);
+        search.run(root, (listener != null) ? () -> listener.accept(createResult(board, search, startTime))
+                                            : NO_LISTENER);
+        return createResult(board, search, startTime);
+    }
+
+    private static SearchResult createResult(final Board board, final ForkJoinSearch search, final long startTime) {
+        return new SearchResult(board, search.getPrincipalVariation(), search.getScore(),
+                                search.getCompletedDepth(), search.getThreadNodes(), System.nanoTime() - startTime);
+    }
+
+    private synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(threads);
+        }
+        return pool;
+    }
+
+    private static void joinHelpers(final Thread[] helpers) {
+        boolean interrupted = false;
+        for (final Thread helper : helpers) {
+            while (true) {
+                try {
+                    helper.join();
+                    break;
+                } catch (final InterruptedException e) {
+                    interrupted = true; // helpers are already stopping, wait for them, then restore the status
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getThreads() {return threads;}
+    public long getNodesPerSecond() {return nodesPerSecond;} // per thread, measured by the last search (0 if none)
+
+    /**
+     * @param listener called by the searching thread with the result of each completed iteration (e.g. to show the
+     * search progress), or null for none; used from the next search on.
+     */
+    public void setIterationListener(final Consumer<SearchResult> listener) {
+        iterationListener = listener;
+    }
+    public SearchScheduler getScheduler() {return scheduler;}
+
+    /**
+     * @param scheduler used from the next search on.
+     */
+    public void setScheduler(final SearchScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public TranspositionTable getTranspositionTable() {return table;}
+    public boolean isEnabled(final SearchFeature feature) {return features.contains(feature);}
+
+    /**
+     * @param feature to switch on or off, from the next search on.
+     * @param enabled true to switch on.
+     */
+    public synchronized void setEnabled(final SearchFeature feature, final boolean enabled) {
+        final Set<SearchFeature> changed = EnumSet.copyOf(features);
+        if (enabled) {
+            changed.add(feature);
+        } else {
+            changed.remove(feature);
+        }
+        features = changed;
+    }
+
+    /**
+     * @param score from a search.
+     * @return true (if the score is a forced mate, for either Player).
+     */
+    public static boolean isMateScore(final int score) {
+        return Math.abs(score) >= MATE_SCORE - MAX_DEPTH;
+    }
+
+}
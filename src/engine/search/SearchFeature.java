@@ -0,0 +1,34 @@
+package engine.search;
+
+/**
+ * Selective search techniques, which can be switched off one by one (e.g. to measure the nodes each one saves).
+ * All are enabled by default.
+ */
+public enum SearchFeature {
+
+    /**
+     * Pass the turn at a node with a reduced search: if the opponent still can't reach beta, the node fails high
+     * without searching its Moves. Skipped in check, and when the Player has only Pawns (zugzwang is likely).
+     * Only tried at zero window nodes, so it mostly takes effect together with PRINCIPAL_VARIATION_SEARCH.
+     */
+    NULL_MOVE,
+
+    /**
+     * Search late quiet Moves (by move ordering rank) with less depth, and only search again at full depth if they
+     * raise alpha.
+     */
+    LATE_MOVE_REDUCTIONS,
+
+    /**
+     * Principal variation search: after the first Move, prove that the other Moves are worse with a zero window
+     * search, and only search again with the full window if one isn't.
+     */
+    PRINCIPAL_VARIATION_SEARCH,
+
+    /**
+     * Start each iteration with a narrow window around the previous iteration's score, widened on failing low or
+     * high.
+     */
+    ASPIRATION_WINDOWS
+
+}
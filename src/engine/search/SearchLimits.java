@@ -0,0 +1,85 @@
+package engine.search;
+
+/**
+ * Limits of a single search: a maximum depth (in plies), a time budget, or both (whichever is reached first).
+ * The time budget is either a fixed time for the Move, or the Player's remaining clock time (with increment per Move
+ * and Moves until the next time control), from which the TimeManager budgets the time of the Move.
+ */
+public final class SearchLimits {
+
+    public static final long NO_TIME_LIMIT = Long.MAX_VALUE;
+
+    private final int maxDepth;
+    private final long maxTimeMillis;
+    private final long remainingMillis;
+    private final long incrementMillis;
+    private final int movesToGo; // 0 if the remaining time is for the rest of the game
+
+    private SearchLimits(final int maxDepth, final long maxTimeMillis, final long remainingMillis,
+                         final long incrementMillis, final int movesToGo) {
+        if (maxDepth < 1 || maxTimeMillis < 0 || remainingMillis < 0 || incrementMillis < 0 || movesToGo < 0) {
+            throw new IllegalArgumentException("Search needs a depth of at least 1 and a non-negative time budget!");
+        }
+        this.maxDepth = Math.min(maxDepth, Search.MAX_DEPTH);
+        this.maxTimeMillis = maxTimeMillis;
+        this.remainingMillis = remainingMillis;
+        this.incrementMillis = incrementMillis;
+        this.movesToGo = movesToGo;
+    }
+
+    /**
+     * @param depth number of plies to search (capped at Search.MAX_DEPTH).
+     * @return limits of a search without a time budget.
+     */
+    public static SearchLimits ofDepth(final int depth) {
+        return new SearchLimits(depth, NO_TIME_LIMIT, NO_TIME_LIMIT, 0, 0);
+    }
+
+    /**
+     * @param millis time budget; it is searched in full, and the deepest completed iteration within it is returned.
+     * @return limits of a search without a depth limit (other than Search.MAX_DEPTH).
+     */
+    public static SearchLimits ofTime(final long millis) {
+        return new SearchLimits(Search.MAX_DEPTH, millis, NO_TIME_LIMIT, 0, 0);
+    }
+
+    /**
+     * @param depth number of plies to search (capped at Search.MAX_DEPTH).
+     * @param millis time budget.
+     * @return limits of a search stopping at whichever limit is reached first.
+     */
+    public static SearchLimits of(final int depth, final long millis) {
+        return new SearchLimits(depth, millis, NO_TIME_LIMIT, 0, 0);
+    }
+
+    /**
+     * @param remainingMillis time left on the clock of the Player to move.
+     * @param incrementMillis time added to the clock after each Move.
+     * @param movesToGo Moves until the next time control, or 0 if the remaining time is for the rest of the game.
+     * @return limits of a search in a game with a clock (the TimeManager decides how much time the Move gets).
+     */
+    public static SearchLimits ofClock(final long remainingMillis, final long incrementMillis, final int movesToGo) {
+        return ofClock(Search.MAX_DEPTH, remainingMillis, incrementMillis, movesToGo);
+    }
+
+    /**
+     * @param depth number of plies to search (capped at Search.MAX_DEPTH).
+     * @param remainingMillis time left on the clock of the Player to move.
+     * @param incrementMillis time added to the clock after each Move.
+     * @param movesToGo Moves until the next time control, or 0 if the remaining time is for the rest of the game.
+     * @return limits of a search in a game with a clock, stopping at the depth if it is reached first.
+     */
+    public static SearchLimits ofClock(final int depth, final long remainingMillis, final long incrementMillis,
+                                       final int movesToGo) {
+        return new SearchLimits(depth, NO_TIME_LIMIT, remainingMillis, incrementMillis, movesToGo);
+    }
+
+    public int getMaxDepth() {return maxDepth;}
+    public long getMaxTimeMillis() {return maxTimeMillis;}
+    public long getRemainingMillis() {return remainingMillis;}
+    public long getIncrementMillis() {return incrementMillis;}
+    public int getMovesToGo() {return movesToGo;}
+    public boolean hasClock() {return remainingMillis != NO_TIME_LIMIT;}
+    public boolean hasTimeLimit() {return maxTimeMillis != NO_TIME_LIMIT || hasClock();}
+
+}
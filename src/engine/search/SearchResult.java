@@ -0,0 +1,101 @@
+package engine.search;
+
+import engine.board.Board;
+import engine.moves.Move;
+import engine.moves.PackedMove;
+
+import static engine.moves.PackedMove.NO_MOVE;
+import static engine.search.Search.MATE_SCORE;
+
+/**
+ * Outcome of a search: the best Move and the expected line of play (principal variation), with its score.
+ */
+public final class SearchResult {
+
+    private final Move bestMove;
+    private final int[] principalVariation; // packed Moves, starting with the best Move
+    private final int score;
+    private final int depth;
+    private final long[] threadNodes; // nodes searched by each thread (main thread first)
+    private final long nodes;
+    private final long nanos;
+
+    /**
+     * @param board that was searched, or null if a SearchBoard was searched (the best Move is then only packed).
+     */
+    SearchResult(final Board board, final int[] principalVariation, final int score,
+                 final int depth, final long[] threadNodes, final long nanos) {
+        this.principalVariation = principalVariation;
+        this.score = score;
+        this.depth = depth;
+        this.threadNodes = threadNodes;
+        this.nanos = nanos;
+        long sum = 0;
+        for (final long n : threadNodes) {
+            sum += n;
+        }
+        nodes = sum;
+        bestMove = (board != null && getBestPackedMove() != NO_MOVE) ? PackedMove.toMove(board, getBestPackedMove())
+                                                                     : Move.ILLEGAL_MOVE;
+    }
+
+    /**
+     * @return search summary, e.g. "depth 6 score 35 nodes 123456 nps 241125 time 512 ms pv e2e4 e7e5 ..".
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("depth ").append(depth)
+          .append(" score ").append(Search.isMateScore(score) ? "mate " + getMateInMoves() : score)
+          .append(" nodes ").append(nodes)
+          .append(" nps ").append(getNodesPerSecond())
+          .append(" time ").append(getTimeMillis()).append(" ms")
+          .append(" pv");
+        for (final int move : principalVariation) {
+            sb.append(' ').append(PackedMove.toString(move));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Under-promotions found by the search are returned as the Board's (Queen) promotion; see getBestPackedMove.
+     * @return best Move of the Board's current Player, or Move.ILLEGAL_MOVE if there are no legal Moves (or a
+     * SearchBoard was searched).
+     */
+    public Move getBestMove() {return bestMove;}
+
+    /**
+     * @return best Move as packed Move (incl. under-promotions), or PackedMove.NO_MOVE if none.
+     */
+    public int getBestPackedMove() {
+        return (principalVariation.length > 0) ? principalVariation[0] : NO_MOVE;
+    }
+
+    /**
+     * @return packed Moves of the expected line of play (not to be modified).
+     */
+    public int[] getPrincipalVariation() {return principalVariation;}
+
+    /**
+     * @return score in centipawns for the Player to move (see Search.isMateScore for mate scores).
+     */
+    public int getScore() {return score;}
+
+    /**
+     * @return Moves (of the Player to move) until mate; negative if the Player to move is getting mated.
+     */
+    public int getMateInMoves() {
+        return (score > 0) ? (MATE_SCORE - score + 1) / 2 : -(MATE_SCORE + score) / 2;
+    }
+
+    public int getDepth() {return depth;}
+    public long getNodes() {return nodes;} // of all threads
+    public long getTimeMillis() {return nanos / 1_000_000;}
+    public long getNodesPerSecond() {return (nanos > 0) ? nodes * 1_000_000_000L / nanos : 0;} // of all threads
+
+    /**
+     * @return nodes searched by each thread, the main thread first (not to be modified).
+     */
+    public long[] getThreadNodes() {return threadNodes;}
+
+}
@@ -0,0 +1,22 @@
+package engine.search;
+
+/**
+ * How a Search spreads its work over several threads.
+ */
+public enum SearchScheduler {
+
+    /**
+     * Every thread searches the whole tree from the root; threads only share the transposition table.
+     * Scales with little overhead, but node counts differ from run to run.
+     */
+    LAZY_SMP,
+
+    /**
+     * "Young Brothers Wait" on a ForkJoinPool: the first Move of a node is searched alone, then its siblings are
+     * searched as parallel tasks; a cutoff cancels the remaining siblings. With one thread, node counts are equal on
+     * every run; with more, they differ slightly, since siblings see the alpha raised by others (and share the
+     * transposition table and Move ordering) depending on timing.
+     */
+    FORK_JOIN
+
+}
@@ -0,0 +1,281 @@
+package engine.search;
+
+import engine.board.SearchBoard;
+import engine.moves.MoveBuffer;
+import engine.moves.MoveGenerator;
+import engine.players.PlayerColor;
+
+import java.util.Set;
+
+import static engine.moves.PackedMove.NO_MOVE;
+import static engine.search.Reductions.*;
+import static engine.search.Search.*;
+import static engine.search.TranspositionTable.EXACT;
+import static engine.search.TranspositionTable.LOWER_BOUND;
+import static engine.search.TranspositionTable.NO_ENTRY;
+import static engine.search.TranspositionTable.UPPER_BOUND;
+
+/**
+ * Negamax alpha-beta search with iterative deepening on its own SearchBoard. Every iteration searches one ply
+ * deeper, trying the best Move of the previous iteration first at the root; when the time runs out, the result of
+ * the last completed iteration is kept.
+ * Results of every node are kept in the (shared) TranspositionTable: its bound may end the search of a position
+ * reached again, and its best Move is searched first. The other Moves are ordered by the MoveOrderer.
+ * The enabled SearchFeatures make the search selective: nodes and Moves that are unlikely to matter are searched
+ * with reduced depth or a zero window first, and again at full depth/window only if they turn out to matter.
+ *
+ * With several threads ("Lazy SMP"), each thread runs its own worker on the same root. Only the main worker (id 0)
+ * looks at the clock, and its result is reported; the helpers start at staggered depths, so they search other parts
+ * of the tree first and fill the shared table with results the main worker can use. All workers stop on the
+ * TimeManager's stop flag, which they look at every few thousand nodes.
+ */
+final class SearchWorker {
+
+    private final int id; // 0 for the main worker, helpers count from 1
+    private final SearchBoard board;
+    private final TranspositionTable table;
+    private final TimeManager timeManager; // shared by all workers of a search
+    private final MoveBuffer buffer = new MoveBuffer(MAX_DEPTH + 1);
+    private final MoveOrderer orderer = new MoveOrderer();
+    private final QuiescenceSearch quiescence;
+    private final int[][] pvTable = new int[MAX_DEPTH + 1][MAX_DEPTH + 1]; // "triangular" PV table, one row per ply
+    private final int[] pvLength = new int[MAX_DEPTH + 1];
+    private final int maxDepth;
+    private final boolean nullMove;
+    private final boolean lateMoveReductions;
+    private final boolean principalVariationSearch;
+    private final boolean aspirationWindows;
+
+    private int[] principalVariation = new int[0]; // of last completed iteration
+    private int score;
+    private int completedDepth;
+    private long nodes;
+    private long nextCheck; // nodes (incl. quiescence) at which to check the clock and stop flag next
+    private boolean stopped;
+
+    SearchWorker(final int id, final SearchBoard board, final TranspositionTable table, final SearchLimits limits,
+                 final Set<SearchFeature> features, final TimeManager timeManager) {
+        this.id = id;
+        this.board = board;
+        this.table = table;
+        this.timeManager = timeManager;
+        quiescence = new QuiescenceSearch(orderer, timeManager.getCheckInterval(), () -> {
+            checkTime();
+            return stopped;
+        });
+        maxDepth = limits.getMaxDepth();
+        nullMove = features.contains(SearchFeature.NULL_MOVE);
+        lateMoveReductions = features.contains(SearchFeature.LATE_MOVE_REDUCTIONS);
+        principalVariationSearch = features.contains(SearchFeature.PRINCIPAL_VARIATION_SEARCH);
+        aspirationWindows = features.contains(SearchFeature.ASPIRATION_WINDOWS);
+    }
+
+    /**
+     * @param iterationListener called after each completed iteration.
+     */
+    void run(final Runnable iterationListener) {
+        final int startDepth = isMainWorker() ? 1 : 1 + id % 2; // every second helper starts a ply deeper
+        for (int depth = startDepth; depth <= maxDepth; depth++) {
+            final int iterationScore = searchRoot(depth);
+            if (stopped) {
+                break; // iteration is incomplete, keep result of previous one
+            }
+
+            score = iterationScore;
+            completedDepth = depth;
+            principalVariation = new int[pvLength[0]];
+            System.arraycopy(pvTable[0], 0, principalVariation, 0, pvLength[0]);
+            iterationListener.run();
+
+            if (principalVariation.length == 0 || isMateScore(score)) {
+                break; // no legal Moves, or a forced mate was found (searching deeper won't change it)
+            }
+            if (isMainWorker() && !timeManager.startNextIteration(getBestMove(), getNodes())) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * With aspiration windows, search with a window around the previous score first; on failing low (or high), widen
+     * the window on that side until the score is inside.
+     */
+    private int searchRoot(final int depth) {
+        if (!aspirationWindows || depth < ASPIRATION_MIN_DEPTH || completedDepth == 0 || isMateScore(score)) {
+            return negamax(depth, -INFINITY, INFINITY, 0);
+        }
+
+        int delta = ASPIRATION_WINDOW;
+        int alpha = score - delta;
+        int beta = score + delta;
+        while (true) {
+            final int rootScore = negamax(depth, alpha, beta, 0);
+            if (stopped || (rootScore > alpha && rootScore < beta)) {
+                return rootScore;
+            }
+            delta *= 2;
+            if (rootScore <= alpha) {
+                alpha = Math.max(rootScore - delta, -INFINITY);
+            } else {
+                beta = Math.min(rootScore + delta, INFINITY);
+            }
+        }
+    }
+
+    /**
+     * @return score of the position for the Player to move, from best play of both Players to given depth.
+     * Scores are "fail-soft": below alpha (or above beta) they are bounds, not exact.
+     */
+    private int negamax(final int depth, int alpha, final int beta, final int ply) {
+        pvLength[ply] = 0;
+        nodes++;
+
+        if (nodes + quiescence.getNodes() >= nextCheck) {
+            nextCheck = nodes + quiescence.getNodes() + timeManager.getCheckInterval();
+            checkTime();
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        if (ply > 0 && (board.isRepetition() || board.getHalfMoveClock() >= FIFTY_MOVES_PLIES)) {
+            return DRAW_SCORE;
+        }
+        if (depth == 0 || ply == MAX_DEPTH) {
+            return quiescence.search(board, alpha, beta, ply);
+        }
+
+        // TRANSPOSITION TABLE
+        final long key = board.getZobristKey();
+        final long entry = table.probe(key);
+        int hashMove = NO_MOVE;
+        if (entry != NO_ENTRY) {
+            hashMove = TranspositionTable.getMove(entry);
+            if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) { // never cut off at root, which must return a Move
+                final int entryScore = TranspositionTable.getScore(entry, ply);
+                final int bound = TranspositionTable.getBound(entry);
+                if (bound == EXACT ||
+                    (bound == LOWER_BOUND && entryScore >= beta) ||
+                    (bound == UPPER_BOUND && entryScore <= alpha)) {
+                    return entryScore;
+                }
+            }
+        }
+        if (hashMove == NO_MOVE && ply == 0 && principalVariation.length > 0) {
+            hashMove = principalVariation[0];
+        }
+
+        final PlayerColor color = board.getCurrColor();
+        final boolean inCheck = board.isKingAttacked(color);
+        final boolean isPvNode = beta - alpha > 1; // zero window nodes only need to prove a bound
+
+        // NULL MOVE (not twice in a row, i.e. not if last Move was a null move)
+        if (nullMove && !isPvNode && !inCheck && depth >= NULL_MOVE_MIN_DEPTH && board.getLastMove() != NO_MOVE &&
+            board.hasNonPawnMaterial(color) && Evaluation.evaluate(board, quiescence.getPawnTable()) >= beta) {
+            board.makeNullMove();
+            final int nullScore = -negamax(depth - 1 - getNullMoveReduction(depth), -beta, -beta + 1, ply + 1);
+            board.unmakeNullMove();
+            if (stopped) {
+                return 0;
+            }
+            if (nullScore >= beta) {
+                return isMateScore(nullScore) ? beta : nullScore; // a mate found after passing isn't proven
+            }
+        }
+
+        MoveGenerator.generateMoves(board, buffer, ply);
+        orderer.scoreMoves(buffer, ply, ply, hashMove, board.getLastMove(), color);
+
+        final int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = NO_MOVE;
+        int legalMoves = 0;
+        for (int i = 0; i < buffer.size(ply); i++) {
+            final int move = orderer.pickMove(buffer, ply, i);
+            board.makeMove(move);
+            if (board.isKingAttacked(color)) { // pseudo-legal Move left the own King attacked
+                board.unmakeMove();
+                continue;
+            }
+            legalMoves++;
+
+            final int moveScore = (legalMoves == 1) ? -negamax(depth - 1, -beta, -alpha, ply + 1)
+                                                    : searchLaterMove(move, depth, alpha, beta, ply, legalMoves, inCheck);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (moveScore > bestScore) {
+                bestScore = moveScore;
+                bestMove = move;
+                if (moveScore > alpha) {
+                    alpha = moveScore;
+                    updatePrincipalVariation(move, ply);
+                    if (moveScore >= beta) {
+                        if (MoveOrderer.isQuiet(move)) {
+                            orderer.updateCutoff(move, ply, depth, board.getLastMove(), color);
+                        }
+                        break; // opponent avoids this position ("beta cutoff")
+                    }
+                }
+            }
+        }
+
+        if (legalMoves == 0) { // checkmate (prefer the shortest mate), or stalemate
+            return board.isKingAttacked(color) ? -MATE_SCORE + ply : DRAW_SCORE;
+        }
+
+        final int bound = (bestScore <= originalAlpha) ? UPPER_BOUND : (bestScore >= beta) ? LOWER_BOUND : EXACT;
+        table.store(key, (bound == UPPER_BOUND) ? NO_MOVE : bestMove, bestScore, depth, bound, ply);
+        return bestScore;
+    }
+
+    /**
+     * Search a Move after the first one (already performed on the board): with reduced depth if it's a late quiet
+     * Move, and/or with a zero window. Either is searched again at full depth and window if it raises alpha.
+     * @param moveNumber of the Move in search order (counting legal Moves from 1).
+     * @param inCheck true if the Player to move was in check before the Move.
+     * @return score of the Move, from the point of view of the Player who made it.
+     */
+    private int searchLaterMove(final int move, final int depth, final int alpha, final int beta, final int ply,
+                                final int moveNumber, final boolean inCheck) {
+        int reduction = 0;
+        if (lateMoveReductions && depth >= LATE_MOVE_MIN_DEPTH && moveNumber > LATE_MOVE_MIN_MOVES && !inCheck &&
+            MoveOrderer.isQuiet(move) && !board.isKingAttacked(board.getCurrColor())) { // not if Move gives check
+            reduction = getLateMoveReduction(depth, moveNumber);
+        }
+
+        final int windowBeta = principalVariationSearch ? alpha + 1 : beta;
+        int moveScore = -negamax(depth - 1 - reduction, -windowBeta, -alpha, ply + 1);
+        if (moveScore > alpha && reduction > 0) {
+            moveScore = -negamax(depth - 1, -windowBeta, -alpha, ply + 1);
+        }
+        if (moveScore > alpha && moveScore < beta && principalVariationSearch) {
+            moveScore = -negamax(depth - 1, -beta, -alpha, ply + 1);
+        }
+        return moveScore;
+    }
+
+    /**
+     * The PV of a ply is its best Move followed by the PV of the next ply.
+     */
+    private void updatePrincipalVariation(final int move, final int ply) {
+        pvTable[ply][0] = move;
+        System.arraycopy(pvTable[ply + 1], 0, pvTable[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    private void checkTime() {
+        stopped = isMainWorker() ? timeManager.checkTime(completedDepth > 0) : timeManager.isStopped();
+    }
+
+    boolean isMainWorker() {return id == 0;}
+
+    int[] getPrincipalVariation() {return principalVariation;}
+    int getBestMove() {return (principalVariation.length > 0) ? principalVariation[0] : NO_MOVE;}
+    int getScore() {return score;}
+    int getCompletedDepth() {return completedDepth;}
+    long getNodes() {return nodes + quiescence.getNodes();}
+
+}
@@ -0,0 +1,108 @@
+package engine.search;
+
+import engine.board.AttackTables;
+import engine.board.SearchBoard;
+import engine.pieces.Piece.PieceType;
+import engine.players.PlayerColor;
+
+import static engine.board.BitBoard.EMPTY_MASK;
+import static engine.board.BitBoard.getSquareMask;
+import static engine.moves.PackedMove.*;
+import static engine.pieces.Piece.PieceType.*;
+import static engine.players.PlayerColor.BLACK;
+import static engine.players.PlayerColor.WHITE;
+
+/**
+ * Static exchange evaluation (SEE): the material outcome of a capture, if both Players keep recapturing on the
+ * destination Square with their least valuable attacker (and may stop whenever recapturing would lose).
+ * Sliding Pieces behind a capturing Piece ("x-rays") join the exchange once it has left its Square.
+ * Pins and checks are ignored.
+ * (ref. https://www.chessprogramming.org/Static_Exchange_Evaluation)
+ */
+public enum StaticExchange {
+
+    INSTANCE;
+
+    private static final PieceType[] ATTACKER_TYPES = {PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING}; // least valuable first
+
+    /**
+     * Does the exchange started by a Move win at least the threshold? Decided without computing the exchange's
+     * exact value: the loop stops as soon as one side can't get below (or above) the threshold anymore.
+     * @param board position before the Move.
+     * @param move packed Move of the Player to move.
+     * @param threshold material gain in centipawns (e.g. 0: the Move doesn't lose material).
+     * @return true (if the Move gains at least threshold, with best recaptures of both Players).
+     */
+    public static boolean isAtLeast(final SearchBoard board, final int move, final int threshold) {
+        if (isCastling(move)) {
+            return threshold <= 0;
+        }
+
+        final PieceType captured = getCapturedType(move);
+        final PieceType promotion = getPromotionType(move);
+        int swap = ((captured != null) ? captured.getValue() : 0) - threshold; // gain if nothing recaptures
+        if (promotion != null) {
+            swap += promotion.getValue() - PAWN.getValue();
+        }
+        if (swap < 0) {
+            return false;
+        }
+        swap = ((promotion != null) ? promotion.getValue() : getMovedType(move).getValue()) - swap;
+        if (swap <= 0) {
+            return true; // even losing the moved Piece keeps the threshold
+        }
+
+        final int from = getFrom(move);
+        final int to = getTo(move);
+        long occupancy = board.getAllOccupancy() & ~getSquareMask(from) & ~getSquareMask(to);
+        if (isEnPassant(move)) {
+            occupancy &= ~getSquareMask(to - board.getCurrColor().getMoveDir() * 8);
+        }
+
+        final long queens = board.getPieces(BLACK, QUEEN) | board.getPieces(WHITE, QUEEN);
+        final long bishopsQueens = board.getPieces(BLACK, BISHOP) | board.getPieces(WHITE, BISHOP) | queens;
+        final long rooksQueens = board.getPieces(BLACK, ROOK) | board.getPieces(WHITE, ROOK) | queens;
+        long attackers = board.getAttackers(to, occupancy);
+        PlayerColor color = board.getCurrColor();
+        boolean result = true; // whether the moving Player reaches the threshold, if the exchange stops here
+
+        while (true) {
+            color = color.getOppColor();
+            final long colorAttackers = attackers & board.getOccupancy(color);
+            if (colorAttackers == EMPTY_MASK) {
+                break;
+            }
+            result = !result;
+
+            PieceType attacker = KING;
+            long attackerMask = EMPTY_MASK;
+            for (final PieceType type : ATTACKER_TYPES) {
+                attackerMask = colorAttackers & board.getPieces(color, type);
+                if (attackerMask != EMPTY_MASK) {
+                    attacker = type;
+                    break;
+                }
+            }
+
+            if (attacker == KING) { // may only capture if the other Player has no attackers left
+                return ((attackers & ~board.getOccupancy(color)) != EMPTY_MASK) != result;
+            }
+
+            swap = attacker.getValue() - swap;
+            if (swap < (result ? 1 : 0)) {
+                break; // the other Player stops recapturing, since it would only lose more
+            }
+
+            occupancy &= ~(attackerMask & -attackerMask); // lowest Square of the least valuable attacker
+            if (attacker == PAWN || attacker == BISHOP || attacker == QUEEN) {
+                attackers |= AttackTables.getBishopAttacks(to, occupancy) & bishopsQueens;
+            }
+            if (attacker == ROOK || attacker == QUEEN) {
+                attackers |= AttackTables.getRookAttacks(to, occupancy) & rooksQueens;
+            }
+            attackers &= occupancy;
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,138 @@
+package engine.search;
+
+import static engine.moves.PackedMove.NO_MOVE;
+
+/**
+ * Time budget of one search, and its stop flag.
+ * The budget has a soft limit, after which no new iteration is started, and a hard limit, at which the running
+ * iteration is given up. With a fixed time for the Move, both are that time. With a clock, the soft limit is an even
+ * share of the remaining time over the Moves to go (plus most of the increment), and the hard limit a multiple of it
+ * (but never more than the remaining time allows).
+ * With a clock, the soft limit is extended while the best Move changes between iterations (the search hasn't
+ * settled yet), and an iteration is not started if, at the measured node rate, it would likely not finish before the
+ * hard limit. A fixed time is always searched in full (e.g. for UCI "go movetime").
+ *
+ * Searching threads look at the clock and the stop flag every getCheckInterval() nodes, which is about half a
+ * millisecond of search at the node rate of the previous search; so a stop() returns within a few milliseconds.
+ */
+final class TimeManager {
+
+    static final long DEFAULT_NODES_PER_SECOND = 1_000_000; // per thread, before the first search has measured it
+
+    private static final long CHECK_NANOS = 500_000; // search time between checks of clock and stop flag
+    private static final long MIN_CHECK_INTERVAL = 256;
+    private static final long MAX_CHECK_INTERVAL = 1 << 16;
+    private static final long MOVE_OVERHEAD_MILLIS = 20; // kept on the clock for latency (e.g. of the GUI)
+    private static final int DEFAULT_MOVES_TO_GO = 30; // Moves the remaining time is shared by, in sudden death
+    private static final int MAX_MOVES_TO_GO = 50;
+    private static final int HARD_LIMIT_FACTOR = 4; // hard limit as multiple of the soft limit
+    private static final double MAX_EXTENSION = 2.5; // max factor of the soft limit, if the best Move keeps changing
+    private static final double DEFAULT_BRANCHING_FACTOR = 4; // until two iterations have been measured
+    private static final double MAX_BRANCHING_FACTOR = 8;
+
+    private final boolean clock; // time budgeted from a clock (else a fixed time, or none)
+    private final long startTime; // System.nanoTime() at start of search
+    private final long softNanos; // since startTime
+    private final long hardNanos;
+    private final long checkInterval;
+
+    private volatile boolean stop;
+    private int lastBestMove = NO_MOVE;
+    private double bestMoveChanges; // decays by half per iteration
+    private long lastIterationNodes;
+    private long lastNodes;
+
+    /**
+     * @param limits of the search.
+     * @param startTime System.nanoTime() at start of search.
+     * @param nodesPerSecond expected node rate of a searching thread (e.g. measured by the previous search).
+     */
+    TimeManager(final SearchLimits limits, final long startTime, final long nodesPerSecond) {
+        this.startTime = startTime;
+        clock = limits.hasClock();
+        long soft = limits.getMaxTimeMillis();
+        long hard = limits.getMaxTimeMillis();
+        if (limits.hasClock()) {
+            final int movesToGo = (limits.getMovesToGo() > 0) ? Math.min(limits.getMovesToGo(), MAX_MOVES_TO_GO)
+                                                              : DEFAULT_MOVES_TO_GO;
+            final long available = Math.max(limits.getRemainingMillis() - MOVE_OVERHEAD_MILLIS, 1);
+            final long share = Math.min(available / movesToGo + limits.getIncrementMillis() * 3 / 4, available);
+            hard = Math.min(hard, Math.min(share * HARD_LIMIT_FACTOR, available));
+            soft = Math.min(soft, share);
+        }
+        softNanos = toNanos(soft);
+        hardNanos = toNanos(hard);
+        checkInterval = Math.max(MIN_CHECK_INTERVAL, Math.min(nodesPerSecond * CHECK_NANOS / 1_000_000_000L,
+                                                               MAX_CHECK_INTERVAL));
+    }
+
+    private static long toNanos(final long millis) {
+        return (millis == SearchLimits.NO_TIME_LIMIT) ? Long.MAX_VALUE : millis * 1_000_000L;
+    }
+
+    /**
+     * Called by the main search thread every getCheckInterval() nodes: sets the stop flag at the hard limit.
+     * @param canStop false while the first iteration isn't complete (a search always returns a Move).
+     * @return true if the search should stop.
+     */
+    boolean checkTime(final boolean canStop) {
+        if (!canStop) {
+            return false;
+        }
+        if (!stop && System.nanoTime() - startTime >= hardNanos) {
+            stop = true;
+        }
+        return stop;
+    }
+
+    /**
+     * Called by the main search thread after each completed iteration.
+     * @param bestMove of the completed iteration.
+     * @param nodes searched so far (by the threads the node rate is measured for).
+     * @return true if the next iteration should be started.
+     */
+    boolean startNextIteration(final int bestMove, final long nodes) {
+        bestMoveChanges /= 2;
+        if (lastBestMove != NO_MOVE && bestMove != lastBestMove) {
+            bestMoveChanges++;
+        }
+        lastBestMove = bestMove;
+
+        final long iterationNodes = nodes - lastNodes;
+        final double branchingFactor = (lastIterationNodes > 0)
+                                       ? Math.min((double) iterationNodes / lastIterationNodes, MAX_BRANCHING_FACTOR)
+                                       : DEFAULT_BRANCHING_FACTOR;
+        lastIterationNodes = iterationNodes;
+        lastNodes = nodes;
+
+        final long elapsed = System.nanoTime() - startTime;
+        if (!clock) { // a fixed time is used up (the hard limit stops the last iteration)
+            return !stop && elapsed < hardNanos;
+        }
+        if (stop || elapsed >= softNanos * Math.min(1 + bestMoveChanges, MAX_EXTENSION)) {
+            return false;
+        }
+        final double nextIterationNanos = iterationNodes * branchingFactor * 1e9 / getNodesPerSecond(nodes);
+        return elapsed + nextIterationNanos < hardNanos;
+    }
+
+    /**
+     * @param nodes searched so far (e.g. by all threads).
+     * @return node rate since start of search.
+     */
+    long getNodesPerSecond(final long nodes) {
+        final long elapsed = Math.max(System.nanoTime() - startTime, 1);
+        return (long) (nodes * 1e9 / elapsed);
+    }
+
+    /**
+     * Stops the search (from any thread); the searching threads stop at their next check.
+     */
+    void stop() {
+        stop = true;
+    }
+
+    boolean isStopped() {return stop;}
+    long getCheckInterval() {return checkInterval;} // nodes between checks of clock and stop flag
+
+}
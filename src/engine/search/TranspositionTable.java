@@ -0,0 +1,166 @@
+package engine.search;
+
+import java.util.Arrays;
+
+import static engine.moves.PackedMove.NO_MOVE;
+import static engine.search.Search.MATE_SCORE;
+import static engine.search.Search.MAX_DEPTH;
+
+/**
+ * Hash table of searched positions, keyed by Zobrist key, so positions reached again (through another Move order,
+ * or in the next iteration) reuse earlier results: a score bound, the searched depth and the best Move.
+ *
+ * The memory is fixed at construction: two long arrays of equal length ("key" and "data" of each entry),
+ * grouped in buckets of BUCKET_SIZE entries. A position may be stored in any entry of its bucket; when the
+ * bucket is full, the entry of an older search, or else the shallowest entry, is replaced.
+ *
+ * Searching threads share the table without locking. Each entry's key is stored XOR-ed with its data, so an entry
+ * that was half written by another thread (or torn, as non-volatile longs may be) no longer matches its key,
+ * and is ignored (ref. https://www.chessprogramming.org/Shared_Hash_Table#Lockless).
+ */
+public final class TranspositionTable {
+
+    public static final long NO_ENTRY = 0L; // returned by probe() if position isn't stored; never valid data
+    public static final int EXACT = 1; // bound types (never 0, so valid data is never NO_ENTRY)
+    public static final int LOWER_BOUND = 2; // score is at least the stored score (search failed high)
+    public static final int UPPER_BOUND = 3; // score is at most the stored score (search failed low)
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    private static final int BUCKET_SIZE = 4; // entries per bucket
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+    // DATA BITS (lowest bit first)
+    private static final int MOVE_BITS = 24; // packed Move
+    private static final int SCORE_SHIFT = 24; // 16 bits, signed
+    private static final int DEPTH_SHIFT = 40; // 8 bits
+    private static final int BOUND_SHIFT = 48; // 2 bits
+    private static final int AGE_SHIFT = 50; // 8 bits
+
+    private final long[] keys; // Zobrist key XOR data
+    private final long[] data;
+    private final int bucketMask;
+    private int age; // of current search, wraps around at 256
+
+    /**
+     * @param sizeMb memory budget in megabytes (at least 1); the entry count is rounded down to a power of two.
+     */
+    public TranspositionTable(final int sizeMb) {
+        final long maxEntries = Math.max(sizeMb, 1) * 1024L * 1024L / ENTRY_BYTES;
+        final int entries = (int) Long.highestOneBit(Math.min(maxEntries, 1L << 30));
+        keys = new long[entries];
+        data = new long[entries];
+        bucketMask = (entries / BUCKET_SIZE) - 1;
+    }
+
+    /**
+     * Start a new search: entries of earlier searches are replaced before any of the current one.
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        age = 0;
+    }
+
+    /**
+     * @param key Zobrist key of position.
+     * @return data of stored entry (see getMove, getScore, getDepth, getBound), or NO_ENTRY if none.
+     */
+    public long probe(final long key) {
+        final int first = getBucket(key);
+        for (int i = first; i < first + BUCKET_SIZE; i++) {
+            final long entryData = data[i];
+            if ((keys[i] ^ entryData) == key && entryData != NO_ENTRY) {
+                return entryData;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    /**
+     * @param key Zobrist key of position.
+     * @param move best Move found (or NO_MOVE, which keeps a stored Move of the same position).
+     * @param score of position, as returned by the search at given ply.
+     * @param depth searched (remaining plies).
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND.
+     * @param ply distance from the root (mate scores are stored relative to the position, not the root).
+     */
+    public void store(final long key, int move, final int score, final int depth, final int bound, final int ply) {
+        final int first = getBucket(key);
+        int replace = first;
+        int replaceValue = Integer.MAX_VALUE;
+
+        for (int i = first; i < first + BUCKET_SIZE; i++) {
+            final long entryData = data[i];
+            if (entryData == NO_ENTRY || (keys[i] ^ entryData) == key) {
+                if (move == NO_MOVE && entryData != NO_ENTRY) {
+                    move = getMove(entryData); // keep best Move of an earlier search of same position
+                }
+                replace = i;
+                break;
+            }
+
+            // older searches first, then shallower depth
+            final int value = getDepth(entryData) - 8 * ((age - getAge(entryData)) & 0xFF);
+            if (value < replaceValue) {
+                replaceValue = value;
+                replace = i;
+            }
+        }
+
+        final long entryData = (move & ((1L << MOVE_BITS) - 1)) |
+                               ((toStoredScore(score, ply) & 0xFFFFL) << SCORE_SHIFT) |
+                               ((long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT) |
+                               ((long) bound << BOUND_SHIFT) |
+                               ((long) age << AGE_SHIFT);
+        data[replace] = entryData;
+        keys[replace] = key ^ entryData;
+    }
+
+    /**
+     * @return permill of entries filled by the current search (sampled from the first 1000 entries).
+     */
+    public int getHashfull() {
+        int filled = 0;
+        final int samples = Math.min(1000, data.length);
+        for (int i = 0; i < samples; i++) {
+            if (data[i] != NO_ENTRY && getAge(data[i]) == age) {
+                filled++;
+            }
+        }
+        return filled * 1000 / samples;
+    }
+
+    public int getEntries() {return data.length;}
+
+    public static int getMove(final long entry) {return (int) (entry & ((1L << MOVE_BITS) - 1));}
+    public static int getDepth(final long entry) {return (int) ((entry >>> DEPTH_SHIFT) & 0xFF);}
+    public static int getBound(final long entry) {return (int) ((entry >>> BOUND_SHIFT) & 0x3);}
+    private static int getAge(final long entry) {return (int) ((entry >>> AGE_SHIFT) & 0xFF);}
+
+    /**
+     * @param entry data from probe().
+     * @param ply distance from the root of the probing search.
+     * @return stored score, with mate scores counted from the root again.
+     */
+    public static int getScore(final long entry, final int ply) {
+        final int score = (short) (entry >>> SCORE_SHIFT);
+        if (score >= MATE_SCORE - MAX_DEPTH) return score - ply;
+        if (score <= -MATE_SCORE + MAX_DEPTH) return score + ply;
+        return score;
+    }
+
+    private static int toStoredScore(final int score, final int ply) {
+        if (score >= MATE_SCORE - MAX_DEPTH) return score + ply;
+        if (score <= -MATE_SCORE + MAX_DEPTH) return score - ply;
+        return score;
+    }
+
+    private int getBucket(final long key) {
+        return (int) (key & bucketMask) * BUCKET_SIZE;
+    }
+
+}
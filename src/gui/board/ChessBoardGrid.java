@@ -1,6 +1,7 @@
 package gui.board;
 
 import engine.board.Board;
+import engine.board.GameEvents;
 import engine.board.Square;
 import engine.moves.Move;
 import engine.moves.MoveLog;
@@ -53,6 +54,7 @@ public class ChessBoardGrid extends GridPane implements Observer {
         setPrefSize(BOARD_WIDTH, BOARD_HEIGHT);
         board = Board.initializeBoard();
         initializeGrid();
+        GameEvents.INSTANCE.publishBoard(board);
     }
 
     @Override
@@ -108,21 +110,37 @@ public class ChessBoardGrid extends GridPane implements Observer {
     private void undoMove() {
         lastMove = MoveLog.getMoveList().remove(MoveLog.getMoveList().size() - 1);
         board = board.getCurrPlayer().undoMove(lastMove).getNewBoard();
+        GameEvents.INSTANCE.publishBoard(board);
         redrawStacks(board);
     }
 
     private void redoMove() {
         if (lastMove != null) {
-            board = board.getCurrPlayer().performMove(lastMove).getNewBoard();
+            final MoveTransaction transaction = board.getCurrPlayer().performMove(lastMove);
+            if (transaction.getResult() == COMPLETED) {
+                board = transaction.getNewBoard();
+                logMove(lastMove);
+            }
             redrawStacks(board);
         }
     }
 
+    /**
+     * Add a Move to the MoveLog once it is committed on the displayed Board (for undo / redo / reset), and publish
+     * the new Board to GameEvents. Moves performed while validating or searching never reach either.
+     * @param move that was performed.
+     */
+    private void logMove(final Move move) {
+        MoveLog.getInstance().addMove(move);
+        GameEvents.INSTANCE.publishBoard(board);
+    }
+
     private void resetMoves() {
         for(int i = MoveLog.getMoveList().size() - 1; i >= 0; i--) {
             final Move lastMove = MoveLog.getMoveList().remove(MoveLog.getMoveList().size() - 1);
             board = board.getCurrPlayer().undoMove(lastMove).getNewBoard();
         }
+        GameEvents.INSTANCE.publishBoard(board);
         redrawStacks(board);
     }
 
@@ -181,6 +199,7 @@ public class ChessBoardGrid extends GridPane implements Observer {
 
                         if (transaction.getResult() == COMPLETED) {
                             board = transaction.getNewBoard();
+                            logMove(move);
                         }
 
                         clearUserSelections(); // "reset" selected Square and Piece
@@ -215,14 +234,9 @@ public class ChessBoardGrid extends GridPane implements Observer {
         }
 
         private void setSquareColors(final int squarePos) {
-            if (ROW_8.get(squarePos) || ROW_6.get(squarePos) || ROW_4.get(squarePos) || ROW_2.get(squarePos)) {
-                bgColor = (squarePos % 2 == 0) ? LIGHT_COLOR : DARK_COLOR;
-                squareGraphic.setFill(bgColor);
-            }
-            else if (ROW_7.get(squarePos) || ROW_5.get(squarePos) || ROW_3.get(squarePos) || ROW_1.get(squarePos)) {
-                bgColor = (squarePos % 2 != 0) ? LIGHT_COLOR : DARK_COLOR;
-                squareGraphic.setFill(bgColor);
-            }
+            // light Squares have an even row + column sum (e.g. a8 top-left, h1 bottom-right)
+            bgColor = ((getRow(squarePos) + getColumn(squarePos)) % 2 == 0) ? LIGHT_COLOR : DARK_COLOR;
+            squareGraphic.setFill(bgColor);
         }
 
         private void showTooltips(int position, int col, int row) {
@@ -1,5 +1,6 @@
 package gui.main;
 
+import engine.board.GameEvents;
 import gui.board.ChessBoardGrid;
 import gui.menu.MenuTop;
 import javafx.scene.Group;
@@ -15,6 +16,7 @@ public class MainGUI extends BorderPane {
         Group root = new Group();
         MenuTop menu = new MenuTop();
         StatusBar statusBar = new StatusBar(1);
+        GameEvents.INSTANCE.addBoardListener(statusBar::showNextToMove); // before the grid publishes its Board
         ChessBoardGrid grid = new ChessBoardGrid();
 
         menu.addObserver(grid);
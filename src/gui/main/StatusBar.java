@@ -1,5 +1,6 @@
 package gui.main;
 
+import engine.board.Board;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
@@ -8,7 +9,7 @@ import javafx.scene.layout.HBox;
 public class StatusBar extends HBox {
 
     private Label statusLbl;
-    private static SimpleStringProperty msg;
+    private final SimpleStringProperty msg;
 
     public StatusBar(final int spacing) {
         super(spacing);
@@ -24,8 +25,16 @@ public class StatusBar extends HBox {
         getChildren().addAll(statusLbl);
     }
 
-    public static void setStatus(String text) {
+    public void setStatus(String text) {
         msg.set(text);
     }
 
+    /**
+     * Show the Player to move of the game's Board (subscribed to GameEvents, i.e. called once per committed Move).
+     * @param board of the game.
+     */
+    public void showNextToMove(final Board board) {
+        setStatus(board.getCurrPlayer().getColor().isWhite() ? "White to move.." : "Black to move..");
+    }
+
 }